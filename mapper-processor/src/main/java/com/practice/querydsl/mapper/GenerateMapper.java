@@ -0,0 +1,31 @@
+package com.practice.querydsl.mapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 조회 결과 행(Object[]) → DTO 매퍼를 컴파일 시점에 생성한다. 생성된 XxxMapper 는 생성자/setter 를 직접 호출하므로 리플렉션이 없다.
+ * <ul>
+ *     <li>생성자에 붙이면: 생성자 파라미터 순서가 곧 컬럼 순서다. new Dto(row[0], row[1], ...)</li>
+ *     <li>클래스에 붙이면: 기본 생성자 + properties 순서대로 setter 호출. dto.setName(row[0]); ...</li>
+ * </ul>
+ * 생성되는 메서드
+ * <ul>
+ *     <li>map(Object[] row)</li>
+ *     <li>map(Tuple tuple), projection(Expression...) : 컴파일 클래스패스에 Querydsl 이 있을 때만.
+ *     projection 은 Projections.constructor/bean/fields 대신 select 절에 바로 넣을 수 있는 FactoryExpression 이다.</li>
+ * </ul>
+ * 소스에만 남는 어노테이션이므로 DTO 는 런타임에 이 모듈에도, Querydsl 에도 의존하지 않는다.
+ * 기본형 컬럼의 null 은 기본값(0, false)으로 매핑하고, 숫자는 Number 로 받아 변환한다. (예: count() 의 Long → int)
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.TYPE, ElementType.CONSTRUCTOR})
+public @interface GenerateMapper {
+
+    /**
+     * 클래스에 붙일 때 setter 로 채울 프로퍼티 이름 (컬럼 순서). 생성자에 붙일 때는 사용하지 않는다.
+     */
+    String[] properties() default {};
+}
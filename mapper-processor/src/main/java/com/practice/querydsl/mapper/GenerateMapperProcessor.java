@@ -0,0 +1,248 @@
+package com.practice.querydsl.mapper;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link GenerateMapper} 가 붙은 DTO 마다 같은 패키지에 XxxMapper 소스를 생성한다.
+ */
+@SupportedAnnotationTypes("com.practice.querydsl.mapper.GenerateMapper")
+public class GenerateMapperProcessor extends AbstractProcessor {
+
+    private static final String QUERYDSL_TUPLE = "com.querydsl.core.Tuple";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateMapper.class)) {
+            try {
+                MapperModel model = element.getKind() == ElementKind.CONSTRUCTOR
+                        ? constructorModel((ExecutableElement) element)
+                        : setterModel((TypeElement) element);
+                if (model != null) {
+                    write(model);
+                }
+            } catch (IOException e) {
+                error(element, "매퍼 생성 실패: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private MapperModel constructorModel(ExecutableElement constructor) {
+        TypeElement type = (TypeElement) constructor.getEnclosingElement();
+        if (!validType(type) || !accessible(constructor)) {
+            return null;
+        }
+        List<Column> columns = new ArrayList<>();
+        for (VariableElement parameter : constructor.getParameters()) {
+            columns.add(new Column(parameter.getSimpleName().toString(), parameter.asType(), null));
+        }
+        return new MapperModel(type, columns, true);
+    }
+
+    private MapperModel setterModel(TypeElement type) {
+        if (!validType(type)) {
+            return null;
+        }
+        String[] properties = type.getAnnotation(GenerateMapper.class).properties();
+        if (properties.length == 0) {
+            error(type, "@GenerateMapper 를 클래스에 붙이면 properties 를 지정해야 합니다.");
+            return null;
+        }
+        boolean hasDefaultConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty() && accessible(constructor));
+        if (!hasDefaultConstructor) {
+            error(type, "setter 매핑에는 private 이 아닌 기본 생성자가 필요합니다.");
+            return null;
+        }
+
+        List<Column> columns = new ArrayList<>();
+        for (String property : properties) {
+            String setterName = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+            ExecutableElement setter = ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+                    .filter(method -> method.getSimpleName().contentEquals(setterName))
+                    .filter(method -> method.getParameters().size() == 1 && accessible(method))
+                    .findFirst()
+                    .orElse(null);
+            if (setter == null) {
+                error(type, "프로퍼티 '" + property + "' 의 setter(" + setterName + ") 가 없습니다.");
+                return null;
+            }
+            columns.add(new Column(property, setter.getParameters().get(0).asType(), setterName));
+        }
+        return new MapperModel(type, columns, false);
+    }
+
+    private boolean validType(TypeElement type) {
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL) {
+            error(type, "@GenerateMapper 는 최상위 클래스에만 사용할 수 있습니다.");
+            return false;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(type, "추상 클래스에는 매퍼를 만들 수 없습니다.");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean accessible(Element element) {
+        return !element.getModifiers().contains(Modifier.PRIVATE);
+    }
+
+    private void write(MapperModel model) throws IOException {
+        String packageName = ((PackageElement) model.type().getEnclosingElement()).getQualifiedName().toString();
+        String dtoName = model.type().getSimpleName().toString();
+        String mapperName = dtoName + "Mapper";
+        boolean querydsl = processingEnv.getElementUtils().getTypeElement(QUERYDSL_TUPLE) != null;
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * ").append(dtoName).append(" 매퍼. @GenerateMapper 로 생성된 코드이므로 수정하지 않는다.\n */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        source.append("public final class ").append(mapperName).append(" {\n\n");
+        source.append("    private ").append(mapperName).append("() {\n    }\n\n");
+
+        writeMapRow(source, model, dtoName);
+        if (querydsl) {
+            writeQuerydsl(source, model, dtoName);
+        }
+        source.append("}\n");
+
+        JavaFileObject file = processingEnv.getFiler()
+                .createSourceFile(packageName.isEmpty() ? mapperName : packageName + "." + mapperName, model.type());
+        try (Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private void writeMapRow(StringBuilder source, MapperModel model, String dtoName) {
+        List<Column> columns = model.columns();
+        source.append("    public static ").append(dtoName).append(" map(Object[] row) {\n");
+        if (model.constructor()) {
+            source.append("        return new ").append(dtoName).append("(");
+            for (int i = 0; i < columns.size(); i++) {
+                source.append(i == 0 ? "\n                " : ",\n                ").append(read(columns.get(i), i));
+            }
+            source.append(");\n");
+        } else {
+            source.append("        ").append(dtoName).append(" dto = new ").append(dtoName).append("();\n");
+            for (int i = 0; i < columns.size(); i++) {
+                Column column = columns.get(i);
+                source.append("        dto.").append(column.setter()).append("(").append(read(column, i)).append(");\n");
+            }
+            source.append("        return dto;\n");
+        }
+        source.append("    }\n\n");
+    }
+
+    private void writeQuerydsl(StringBuilder source, MapperModel model, String dtoName) {
+        source.append("    public static ").append(dtoName).append(" map(com.querydsl.core.Tuple tuple) {\n");
+        source.append("        return map(tuple.toArray());\n");
+        source.append("    }\n\n");
+
+        List<Column> columns = model.columns();
+        source.append("    public static com.querydsl.core.types.FactoryExpression<").append(dtoName).append("> projection(");
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            source.append(i == 0 ? "" : ", ")
+                    .append("com.querydsl.core.types.Expression<? extends ").append(boxed(column.type())).append("> ")
+                    .append(column.name());
+        }
+        source.append(") {\n");
+        source.append("        return new Projection(java.util.List.<com.querydsl.core.types.Expression<?>>of(");
+        for (int i = 0; i < columns.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append(columns.get(i).name());
+        }
+        source.append("));\n    }\n\n");
+
+        source.append("""
+                    private static final class Projection extends com.querydsl.core.types.FactoryExpressionBase<%1$s> {
+
+                        private final java.util.List<com.querydsl.core.types.Expression<?>> args;
+
+                        Projection(java.util.List<com.querydsl.core.types.Expression<?>> args) {
+                            super(%1$s.class);
+                            this.args = args;
+                        }
+
+                        @Override
+                        public java.util.List<com.querydsl.core.types.Expression<?>> getArgs() {
+                            return args;
+                        }
+
+                        @Override
+                        public %1$s newInstance(Object... row) {
+                            return map(row);
+                        }
+
+                        @Override
+                        public <R, C> R accept(com.querydsl.core.types.Visitor<R, C> visitor, C context) {
+                            return visitor.visit(this, context);
+                        }
+                    }
+                """.formatted(dtoName));
+    }
+
+    /**
+     * row[index] 를 컬럼 타입으로 읽는 식. 기본형은 null 이면 기본값, 숫자는 Number 에서 변환한다.
+     */
+    private String read(Column column, int index) {
+        String value = "row[" + index + "]";
+        TypeMirror type = column.type();
+        return switch (type.getKind()) {
+            case BOOLEAN -> value + " != null && (Boolean) " + value;
+            case CHAR -> "(" + value + " == null ? '\\0' : (Character) " + value + ")";
+            case BYTE, SHORT, INT, LONG, FLOAT, DOUBLE ->
+                    "(" + value + " == null ? 0 : ((Number) " + value + ")." + type.getKind().name().toLowerCase() + "Value())";
+            default -> "(" + processingEnv.getTypeUtils().erasure(type) + ") " + value;
+        };
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.getKind() == TypeKind.DECLARED ? type.toString() : processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private record MapperModel(TypeElement type, List<Column> columns, boolean constructor) {
+    }
+
+    /**
+     * @param setter setter 매핑일 때 setter 이름. 생성자 매핑이면 null
+     */
+    private record Column(String name, TypeMirror type, String setter) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.practice.querydsl.bench;
+
+import com.practice.querydsl.QuerydslApplication;
+import com.practice.querydsl.seed.MemberDataGenerator;
+import com.practice.querydsl.seed.MemberDataSpec;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트. 외부 H2 서버 대신 임베디드(in-memory) H2 를 사용하고 SQL 로그는 끈다.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * 커맨드라인 인자는 application.yml 보다 우선하므로 프로파일/데이터소스를 여기서 덮어쓴다.
+     */
+    public static ConfigurableApplicationContext start(String... overrides) {
+        return run(WebApplicationType.NONE, overrides);
+    }
+
+    /**
+     * 내장 톰캣을 임의 포트로 띄운다. 포트는 port(context) 로 얻는다.
+     */
+    public static ConfigurableApplicationContext startWeb(String... overrides) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0"));
+        args.addAll(Arrays.asList(overrides));
+        return run(WebApplicationType.SERVLET, args.toArray(String[]::new));
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType webApplicationType, String... overrides) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=bench",
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--member.sql-trace.enabled=false",
+                "--member.count-cache.enabled=false",
+                "--member.search-cache.enabled=false",
+                "--member.seed.enabled=false"
+        ));
+        args.addAll(Arrays.asList(overrides));
+
+        return new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * 팀 2개, 회원 memberCount 명을 JDBC 배치 insert 로 저장한다. (MemberDataGenerator)
+     */
+    public static void seed(ConfigurableApplicationContext context, long memberCount) {
+        MemberDataSpec spec = new MemberDataSpec();
+        spec.setMembers(memberCount);
+        context.getBean(MemberDataGenerator.class).generate(spec);
+    }
+}
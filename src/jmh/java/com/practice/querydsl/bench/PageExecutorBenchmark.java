@@ -0,0 +1,61 @@
+package com.practice.querydsl.bench;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.MemberTeamDto;
+import com.practice.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 페이지 조회의 지연 시간 분포를 순차 모드와 동시 카운트 모드(member.search.concurrent-count.enabled)로 비교한다.
+ * SampleTime 모드라 결과에 p50/p95/p99 가 함께 나온다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PageExecutorBenchmark {
+
+    @Param({"false", "true"})
+    boolean concurrent;
+
+    @Param({"100000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberSearchCondition condition;
+    PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--member.search.concurrent-count.enabled=" + concurrent);
+        BenchmarkContext.seed(context, rows);
+        memberRepository = context.getBean(MemberRepository.class);
+        condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+        pageRequest = PageRequest.of(3, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex() {
+        return memberRepository.searchPageComplex(condition, pageRequest);
+    }
+}
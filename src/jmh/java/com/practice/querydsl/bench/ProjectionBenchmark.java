@@ -0,0 +1,96 @@
+package com.practice.querydsl.bench;
+
+import com.practice.querydsl.dto.MemberDto;
+import com.practice.querydsl.dto.QMemberDto;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.practice.querydsl.entity.QMember.member;
+
+/**
+ * 프로젝션 방식별 end-to-end 비용 (쿼리 실행 + 결과 매핑). 임베디드 H2 에 rows 건을 넣고 전체를 조회한다.
+ * 순수 매핑 비용만 보려면 ProjectionMappingBenchmark 를 참고.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProjectionBenchmark {
+
+    @Param({"1000", "100000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    JPAQueryFactory queryFactory;
+    TransactionTemplate readOnlyTx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, rows);
+        queryFactory = context.getBean(JPAQueryFactory.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberDto> bean() { // setter
+        return readOnlyTx.execute(status -> queryFactory
+                .select(Projections.bean(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> fields() { // 필드 직접 접근
+        return readOnlyTx.execute(status -> queryFactory
+                .select(Projections.fields(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> constructor() {
+        return readOnlyTx.execute(status -> queryFactory
+                .select(Projections.constructor(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection() { // @QueryProjection
+        return readOnlyTx.execute(status -> queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .fetch());
+    }
+
+    @Benchmark
+    public List<Tuple> tuple() {
+        return readOnlyTx.execute(status -> queryFactory
+                .select(member.username, member.age)
+                .from(member)
+                .fetch());
+    }
+}
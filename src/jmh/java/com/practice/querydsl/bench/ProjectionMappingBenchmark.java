@@ -0,0 +1,98 @@
+package com.practice.querydsl.bench;
+
+import com.practice.querydsl.dto.MemberDto;
+import com.practice.querydsl.dto.MemberDtoMapper;
+import com.practice.querydsl.dto.QMemberDto;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Projections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.practice.querydsl.entity.QMember.member;
+
+/**
+ * 프로젝션 방식별 순수 매핑 비용. DB 없이 미리 만들어 둔 행(Object[])을 각 FactoryExpression 으로 DTO 로 바꾼다.
+ * Querydsl 은 JPA 결과 행을 FactoryExpression.newInstance(Object...) 로 변환하므로 실제 조회 시 매핑 경로와 같다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectionMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    int rows;
+
+    Object[][] fetchedRows;
+
+    final FactoryExpression<MemberDto> bean = Projections.bean(MemberDto.class, member.username, member.age);
+    final FactoryExpression<MemberDto> fields = Projections.fields(MemberDto.class, member.username, member.age);
+    final FactoryExpression<MemberDto> constructor = Projections.constructor(MemberDto.class, member.username, member.age);
+    final FactoryExpression<MemberDto> queryProjection = new QMemberDto(member.username, member.age);
+    final FactoryExpression<MemberDto> generatedMapper = MemberDtoMapper.projection(member.username, member.age);
+    final FactoryExpression<Tuple> tuple = Projections.tuple(member.username, member.age);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fetchedRows = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            fetchedRows[i] = new Object[]{"member" + i, i % 100};
+        }
+    }
+
+    @Benchmark
+    public void bean(Blackhole blackhole) {
+        map(bean, blackhole);
+    }
+
+    @Benchmark
+    public void fields(Blackhole blackhole) {
+        map(fields, blackhole);
+    }
+
+    @Benchmark
+    public void constructor(Blackhole blackhole) {
+        map(constructor, blackhole);
+    }
+
+    @Benchmark
+    public void queryProjection(Blackhole blackhole) {
+        map(queryProjection, blackhole);
+    }
+
+    @Benchmark
+    public void generatedMapper(Blackhole blackhole) {
+        map(generatedMapper, blackhole);
+    }
+
+    /**
+     * FactoryExpression 을 거치지 않고 생성된 매퍼를 직접 호출. 위 generatedMapper 와의 차이가 FactoryExpression 호출 비용이다.
+     */
+    @Benchmark
+    public void generatedMapperDirect(Blackhole blackhole) {
+        for (Object[] row : fetchedRows) {
+            blackhole.consume(MemberDtoMapper.map(row));
+        }
+    }
+
+    @Benchmark
+    public void tuple(Blackhole blackhole) {
+        map(tuple, blackhole);
+    }
+
+    private void map(FactoryExpression<?> projection, Blackhole blackhole) {
+        for (Object[] row : fetchedRows) {
+            blackhole.consume(projection.newInstance(row));
+        }
+    }
+}
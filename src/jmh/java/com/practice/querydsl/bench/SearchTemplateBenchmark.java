@@ -0,0 +1,105 @@
+package com.practice.querydsl.bench;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.MemberTeamDto;
+import com.practice.querydsl.dto.QMemberTeamDto;
+import com.practice.querydsl.repository.MemberJpaRepository;
+import com.practice.querydsl.repository.MemberSearchTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static com.practice.querydsl.entity.QTeam.team;
+
+/**
+ * 요청마다 쿼리를 조립하는 방식(searchByBuilder)과 조건 모양별 템플릿에 값만 바인딩하는 방식(searchByWhereParam)의 요청당 CPU 비용.
+ * - *Request: 작은 결과(1건)를 조회하는 요청 전체. DB 시간보다 쿼리 구성 비용의 비중이 크게 잡히도록 한다.
+ * - *Build: 값을 바인딩한 JPA 쿼리를 만들기까지만 (DB 실행 없음)
+ *   rebuild 는 쿼리 구성 + JPQL 직렬화 + 플랜 캐시 조회, template 은 저장해 둔 JPQL 로 플랜 캐시 조회 + 바인딩
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchTemplateBenchmark {
+
+    ConfigurableApplicationContext context;
+    MemberJpaRepository memberJpaRepository;
+    MemberSearchTemplates searchTemplates;
+    EntityManager em; // *Build 전용. 실행하지 않는 쿼리를 공유 EntityManager 로 만들면 임시 EntityManager 가 닫히지 않는다.
+    MemberSearchCondition condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, 1_000);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        searchTemplates = context.getBean(MemberSearchTemplates.class);
+        em = context.getBean(EntityManagerFactory.class).createEntityManager();
+
+        condition = new MemberSearchCondition();
+        condition.setUsername("member500");
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(0);
+        condition.setAgeLoe(99);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        em.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> rebuildRequest() {
+        return memberJpaRepository.searchByBuilder(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> templateRequest() {
+        return memberJpaRepository.searchByWhereParam(condition);
+    }
+
+    /**
+     * searchByBuilder 가 이 조건(teamName 있음)으로 조립하는 쿼리와 같다. MemberQueryPlanner 는 teamName 조건이 있으면 inner join 한다.
+     */
+    @Benchmark
+    public Query rebuildBuild() {
+        return new JPAQuery<Void>(em)
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member)
+                .join(member.team, team)
+                .where(
+                        member.username.eq(condition.getUsername()),
+                        team.name.eq(condition.getTeamName()),
+                        member.age.goe(condition.getAgeGoe()),
+                        member.age.loe(condition.getAgeLoe())
+                )
+                .createQuery();
+    }
+
+    @Benchmark
+    public Query templateBuild() {
+        return searchTemplates.createQuery(em, condition);
+    }
+}
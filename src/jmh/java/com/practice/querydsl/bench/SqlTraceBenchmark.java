@@ -0,0 +1,84 @@
+package com.practice.querydsl.bench;
+
+import com.practice.querydsl.monitor.SqlTraceDataSource;
+import com.practice.querydsl.monitor.SqlTraceDrainer;
+import com.practice.querydsl.monitor.SqlTraceRing;
+import com.practice.querydsl.monitor.SqlTracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL 추적 계층의 실행당 오버헤드. (prepare + 단건 조회 1회)
+ * - off: 추적 없음 (원본 DataSource)
+ * - 0 / 0.01 / 1.0: 샘플링 비율. 0 은 프록시 + 시간 측정 비용만, 1.0 은 모든 실행을 링 버퍼에 기록한다.
+ * 드레인 스레드는 기록을 버리기만 하므로 로그 출력 비용은 포함하지 않는다. (실행 스레드가 부담하는 비용만 측정)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SqlTraceBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"off", "0", "0.01", "1.0"})
+    String sampleRate;
+
+    Connection connection;
+    SqlTraceDrainer drainer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:trace;DB_CLOSE_DELAY=-1", "sa", "");
+        if (!sampleRate.equals("off")) {
+            SqlTraceRing ring = new SqlTraceRing(8192);
+            drainer = new SqlTraceDrainer(ring, Duration.ofMillis(10), record -> {
+            });
+            SqlTracer tracer = new SqlTracer(Double.parseDouble(sampleRate), Duration.ofHours(1), false, ring);
+            dataSource = SqlTraceDataSource.wrap(dataSource, tracer);
+        }
+
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists trace_member (id bigint primary key, username varchar(255))");
+            statement.execute("delete from trace_member");
+            statement.execute("insert into trace_member select x, 'member' || x from system_range(1, " + ROWS + ")");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        if (drainer != null) {
+            drainer.destroy();
+        }
+    }
+
+    @Benchmark
+    public String selectById() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select username from trace_member where id = ?")) {
+            statement.setLong(1, ThreadLocalRandom.current().nextLong(1, ROWS + 1));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+}
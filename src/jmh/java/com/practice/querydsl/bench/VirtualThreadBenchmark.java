@@ -0,0 +1,81 @@
+package com.practice.querydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플랫폼 스레드(톰캣 워커 풀) vs 가상 스레드 요청 처리의 처리량과 지연 시간 분포.
+ * 톰캣 기본 워커 수(200)보다 많은 256 개 스레드가 동시에 /v3/members 를 호출한다.
+ * - Throughput: 초당 요청 수
+ * - SampleTime: 요청 지연 시간 분포 (결과의 p0.99 참고)
+ * Java 21 에서 실행해야 virtual 이 실제 가상 스레드로 동작한다.
+ * => ./gradlew jmh -PjavaVersion=21 -PjmhIncludes=VirtualThreadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(256)
+public class VirtualThreadBenchmark {
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    /** 요청 처리 스레드보다 커넥션 풀이 먼저 병목이 되지 않도록 늘려서 비교한다. */
+    @Param({"50"})
+    int connectionPoolSize;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startWeb(
+                "--spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                "--spring.datasource.hikari.maximum-pool-size=" + connectionPoolSize,
+                "--member.sql-trace.enabled=false",
+                "--member.statement-budget.sample-rate=0");
+        BenchmarkContext.seed(context, 100_000);
+        baseUrl = "http://localhost:" + BenchmarkContext.port(context);
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int searchPage() throws IOException, InterruptedException {
+        int page = ThreadLocalRandom.current().nextInt(50);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v3/members?ageGoe=20&ageLoe=60&size=20&page=" + page))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("unexpected status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,98 @@
+package com.practice.querydsl.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트 하나의 측정값.
+ * - latency: 예정된 전송 시각부터 응답 완료까지. 서버가 밀려서 요청을 늦게 보낸 시간까지 포함한다. (coordinated omission 보정)
+ * - service: 실제 전송 시각부터 응답 완료까지
+ * Recorder 는 여러 스레드(HttpClient 완료 콜백)에서 락 없이 기록할 수 있다.
+ */
+class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toMicros(5);
+
+    private final Recorder latency = new Recorder(HIGHEST_TRACKABLE, 3);
+    private final Recorder service = new Recorder(HIGHEST_TRACKABLE, 3);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> errorsByCause = new ConcurrentHashMap<>();
+
+    void success(long intendedNanos, long sentNanos, long doneNanos) {
+        record(intendedNanos, sentNanos, doneNanos);
+        completed.increment();
+    }
+
+    void error(long intendedNanos, long sentNanos, long doneNanos, String cause) {
+        record(intendedNanos, sentNanos, doneNanos);
+        errors.increment();
+        errorsByCause.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+
+    void dropped() {
+        dropped.increment();
+        errorsByCause.computeIfAbsent("dropped(max-in-flight)", key -> new LongAdder()).increment();
+    }
+
+    private void record(long intendedNanos, long sentNanos, long doneNanos) {
+        latency.recordValue(Math.min(HIGHEST_TRACKABLE, TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos)));
+        service.recordValue(Math.min(HIGHEST_TRACKABLE, TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos)));
+    }
+
+    /**
+     * 워밍업 구간의 기록을 버린다.
+     */
+    void reset() {
+        latency.reset();
+        service.reset();
+        completed.reset();
+        errors.reset();
+        dropped.reset();
+        errorsByCause.clear();
+    }
+
+    Map<String, Object> summary(double seconds) {
+        Histogram latencyHistogram = latency.getIntervalHistogram();
+        Histogram serviceHistogram = service.getIntervalHistogram();
+        long ok = completed.sum();
+        long failed = errors.sum() + dropped.sum();
+        long total = ok + failed;
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", total);
+        summary.put("completed", ok);
+        summary.put("errors", errors.sum());
+        summary.put("dropped", dropped.sum());
+        summary.put("errorRate", total == 0 ? 0 : (double) failed / total);
+        summary.put("throughputRps", ok / seconds);
+        summary.put("latencyMillis", percentiles(latencyHistogram));
+        summary.put("serviceTimeMillis", percentiles(serviceHistogram));
+        Map<String, Long> causes = new LinkedHashMap<>();
+        errorsByCause.forEach((cause, count) -> causes.put(cause, count.sum()));
+        summary.put("errorCauses", causes);
+        return summary;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", millis(histogram.getValueAtPercentile(50)));
+        percentiles.put("p90", millis(histogram.getValueAtPercentile(90)));
+        percentiles.put("p99", millis(histogram.getValueAtPercentile(99)));
+        percentiles.put("p99.9", millis(histogram.getValueAtPercentile(99.9)));
+        percentiles.put("max", millis(histogram.getMaxValue()));
+        percentiles.put("mean", histogram.getTotalCount() == 0 ? 0 : histogram.getMean() / 1000.0);
+        return percentiles;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,201 @@
+package com.practice.querydsl.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.practice.querydsl.QuerydslApplication;
+import com.practice.querydsl.seed.MemberDataGenerator;
+import com.practice.querydsl.seed.MemberDataSpec;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * /v1 ~ /v4 회원 검색 HTTP 부하 테스트.
+ * 1. 내장 앱(임의 포트) + in-memory H2 를 띄우고 MemberDataGenerator 로 데이터를 넣는다. (--target 을 주면 생략)
+ *    --target 이면 팀 이름은 --team-names 또는 대상 서버의 /v1/teams/stats 에서 가져온다.
+ * 2. 열린 모델(open model)로 요청을 보낸다: 응답을 기다리지 않고 1/rps 간격의 예정 시각마다 비동기로 보낸다.
+ *    서버가 느려져도 보내는 속도가 줄지 않으므로 실제 사용자 부하와 같이 대기열이 쌓이는 모습을 볼 수 있다.
+ * 3. 워밍업 구간은 버리고, 측정 구간의 지연 시간 백분위/처리량/오류율을 JSON 리포트로 남긴다.
+ */
+public class LoadTest {
+
+    private static final DateTimeFormatter REPORT_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneId.systemDefault());
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.target();
+        List<String> teamNames;
+        if (baseUrl == null) {
+            context = startApplication(options);
+            baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+            teamNames = context.getBean(JdbcTemplate.class).queryForList("select name from team", String.class);
+        } else if (!options.teamNames().isEmpty()) {
+            teamNames = options.teamNames();
+        } else {
+            teamNames = fetchTeamNames(baseUrl);
+        }
+
+        try {
+            Map<String, Object> report = run(options, baseUrl, teamNames);
+            Path reportFile = writeReport(options, report);
+            System.out.println("load test report: " + reportFile.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * 대상 서버에 시드된 팀 이름. 하나도 없으면 팀 조건 검색이 모두 빈 결과가 되므로 시작하지 않는다.
+     */
+    private static List<String> fetchTeamNames(String baseUrl) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/teams/stats")).GET().build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("팀 목록을 가져오지 못했습니다. (" + response.statusCode() + ") --team-names 로 지정하세요.");
+        }
+        List<String> teamNames = new ArrayList<>();
+        new ObjectMapper().readTree(response.body()).forEach(team -> teamNames.add(team.path("teamName").asText()));
+        if (teamNames.isEmpty()) {
+            throw new IllegalStateException("대상 서버에 팀이 없습니다. --team-names 로 지정하세요.");
+        }
+        return teamNames;
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestOptions options) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class).run(
+                "--spring.profiles.active=loadtest",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--member.seed.enabled=false",
+                "--member.sql-trace.enabled=false");
+
+        MemberDataSpec spec = new MemberDataSpec();
+        spec.setMembers(options.members());
+        spec.setTeams(options.teams());
+        spec.setTeamSkew(options.teamSkew());
+        spec.setAgeDistribution(MemberDataSpec.AgeDistribution.NORMAL);
+        context.getBean(MemberDataGenerator.class).generate(spec);
+        return context;
+    }
+
+    private static Map<String, Object> run(LoadTestOptions options, String baseUrl, List<String> teamNames) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        SearchRequestMix mix = new SearchRequestMix(options.endpoints(), teamNames, options.members(), 42);
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        options.endpoints().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+        AtomicInteger inFlight = new AtomicInteger();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rps();
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup().toNanos();
+        long end = measureStart + options.duration().toNanos();
+        boolean measuring = false;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            if (!measuring && intended >= measureStart) {
+                stats.values().forEach(EndpointStats::reset);
+                measuring = true;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            SearchRequestMix.SearchRequest request = mix.next();
+            EndpointStats endpointStats = stats.get(request.endpoint());
+            if (inFlight.get() >= options.maxInFlight()) {
+                endpointStats.dropped();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            long sent = System.nanoTime();
+            client.sendAsync(HttpRequest.newBuilder(URI.create(baseUrl + request.path()))
+                                    .timeout(Duration.ofSeconds(30))
+                                    .build(),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long done = System.nanoTime();
+                        inFlight.decrementAndGet();
+                        if (error != null) {
+                            endpointStats.error(intended, sent, done, error.getClass().getSimpleName());
+                        } else if (response.statusCode() >= 400) {
+                            endpointStats.error(intended, sent, done, "http " + response.statusCode());
+                        } else {
+                            endpointStats.success(intended, sent, done);
+                        }
+                    });
+        }
+
+        awaitInFlight(inFlight, Duration.ofSeconds(30));
+        double seconds = options.duration().toNanos() / 1e9;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", Instant.now().minusNanos(System.nanoTime() - start).toString());
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("target", options.target() == null ? "embedded" : options.target());
+        config.put("rps", options.rps());
+        config.put("durationSeconds", options.duration().toSeconds());
+        config.put("warmupSeconds", options.warmup().toSeconds());
+        config.put("members", options.members());
+        config.put("teams", options.teams());
+        config.put("teamSkew", options.teamSkew());
+        config.put("endpoints", options.endpoints());
+        config.put("maxInFlight", options.maxInFlight());
+        report.put("config", config);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> endpoints.put(endpoint, endpointStats.summary(seconds)));
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static void awaitInFlight(AtomicInteger inFlight, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private static Path writeReport(LoadTestOptions options, Map<String, Object> report) throws IOException {
+        Path directory = Path.of(options.reportDir());
+        Files.createDirectories(directory);
+        Path file = directory.resolve("loadtest-" + REPORT_NAME.format(Instant.now()) + ".json");
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), report);
+        return file;
+    }
+}
@@ -0,0 +1,72 @@
+package com.practice.querydsl.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 설정. --name=value 형식의 인자로 받는다. (build.gradle 의 loadTest 태스크 참고)
+ *
+ * @param rps          초당 요청 수 (열린 모델: 응답을 기다리지 않고 일정한 간격으로 보낸다)
+ * @param endpoints    엔드포인트별 가중치. 예) v1:1,v2:1,v3:2,v4:2
+ * @param maxInFlight  동시에 응답을 기다리는 요청 수 상한. 넘으면 보내지 않고 dropped 로 센다.
+ * @param target       대상 서버. 없으면 내장 앱 + in-memory H2 를 띄운다.
+ * @param teamNames    --target 일 때 검색에 쓸 팀 이름. 예) teamA,teamB 비어 있으면 대상 서버의 /v1/teams/stats 에서 가져온다.
+ */
+public record LoadTestOptions(int rps,
+                              Duration duration,
+                              Duration warmup,
+                              long members,
+                              int teams,
+                              double teamSkew,
+                              Map<String, Integer> endpoints,
+                              int maxInFlight,
+                              String target,
+                              List<String> teamNames,
+                              String reportDir) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("--name=value 형식이어야 합니다: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("rps", "200")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                Long.parseLong(values.getOrDefault("members", "100000")),
+                Integer.parseInt(values.getOrDefault("teams", "10")),
+                Double.parseDouble(values.getOrDefault("team-skew", "1.0")),
+                parseWeights(values.getOrDefault("endpoints", "v1:1,v2:1,v3:1,v4:1")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                values.get("target"),
+                parseList(values.getOrDefault("team-names", "")),
+                values.getOrDefault("report-dir", "build/reports/loadtest"));
+    }
+
+    private static List<String> parseList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+    }
+
+    private static Map<String, Integer> parseWeights(String value) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,107 @@
+package com.practice.querydsl.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 엔드포인트와 검색 조건을 섞어서 요청 경로를 만든다.
+ * 조건 비율은 실제 검색 화면을 흉내 낸다.
+ * - 조건 없음 40%, 팀 25%, 나이 범위 20%, 팀 + 나이 범위 10%, 이름 5%
+ * - 페이지는 앞쪽에 몰린다. (0 페이지 50%, 1~4 페이지 35%, 5~49 페이지 15%)
+ * /v1 은 페이징이 없으므로 결과가 작은 조건(이름, 또는 팀 + 좁은 나이 범위)만 보낸다.
+ * 팀 이름은 시드된 팀 목록에서, 이름은 member0 ~ member(N-1) 에서 고른다.
+ */
+class SearchRequestMix {
+
+    private final List<String> endpoints = new ArrayList<>();
+    private final List<String> teamNames;
+    private final long members;
+    private final SplittableRandom random;
+
+    SearchRequestMix(Map<String, Integer> endpointWeights, List<String> teamNames, long members, long seed) {
+        endpointWeights.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                endpoints.add(endpoint);
+            }
+        });
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("엔드포인트 가중치가 비어 있습니다.");
+        }
+        this.teamNames = teamNames;
+        this.members = Math.max(1, members);
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * 요청 생성은 스케줄러 스레드 하나에서만 한다.
+     */
+    SearchRequest next() {
+        String endpoint = endpoints.get(random.nextInt(endpoints.size()));
+        StringBuilder query = new StringBuilder();
+
+        if (endpoint.equals("v1")) {
+            if (random.nextInt(2) == 0) {
+                append(query, "username", username());
+            } else {
+                int ageGoe = random.nextInt(90);
+                append(query, "teamName", teamName());
+                append(query, "ageGoe", ageGoe);
+                append(query, "ageLoe", ageGoe + 2);
+            }
+            return new SearchRequest(endpoint, "/v1/members" + query);
+        }
+
+        int shape = random.nextInt(100);
+        if (shape < 40) {
+            // 조건 없음
+        } else if (shape < 65) {
+            append(query, "teamName", teamName());
+        } else if (shape < 85) {
+            appendAgeRange(query);
+        } else if (shape < 95) {
+            append(query, "teamName", teamName());
+            appendAgeRange(query);
+        } else {
+            append(query, "username", username());
+        }
+        append(query, "page", page());
+        append(query, "size", 20);
+        return new SearchRequest(endpoint, "/" + endpoint + "/members" + query);
+    }
+
+    private void appendAgeRange(StringBuilder query) {
+        int ageGoe = random.nextInt(80);
+        append(query, "ageGoe", ageGoe);
+        append(query, "ageLoe", ageGoe + 5 + random.nextInt(20));
+    }
+
+    private int page() {
+        int bucket = random.nextInt(100);
+        if (bucket < 50) {
+            return 0;
+        }
+        return bucket < 85 ? 1 + random.nextInt(4) : 5 + random.nextInt(45);
+    }
+
+    private String teamName() {
+        return teamNames.isEmpty() ? "teamA" : teamNames.get(random.nextInt(teamNames.size()));
+    }
+
+    private String username() {
+        return "member" + random.nextLong(members);
+    }
+
+    private static void append(StringBuilder query, String name, Object value) {
+        query.append(query.isEmpty() ? '?' : '&')
+                .append(name)
+                .append('=')
+                .append(URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8));
+    }
+
+    record SearchRequest(String endpoint, String path) {
+    }
+}
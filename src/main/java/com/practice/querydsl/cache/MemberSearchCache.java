@@ -0,0 +1,123 @@
+package com.practice.querydsl.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.util.function.Supplier;
+
+/**
+ * 회원 검색 결과 캐시. 결과를 직렬화해서 힙 밖 메모리(OffHeapBlockStore)에 저장한다.
+ * - 무효화: 회원/팀 변경이 커밋되면 MemberSearchCacheInvalidator 가 영향을 받는 조건의 결과만 지운다.
+ *   벌크 수정/삭제, JDBC 시드처럼 엔티티 이벤트가 없는 변경은 invalidateAll() 로 전부 지운다.
+ * - 쓰기 트랜잭션 안의 조회는 캐시하지 않는다. (커밋되지 않은 데이터가 캐시에 들어가는 것을 막는다)
+ * - 조회하는 동안 무효화가 일어나면 그 결과는 저장하지 않는다. (epoch 비교)
+ * 메트릭: member.search.cache.requests{result=hit|miss}, member.search.cache.hit.ratio,
+ * member.search.cache.bytes{kind=used|capacity}, member.search.cache.entries, member.search.cache.evictions
+ */
+@Component
+public class MemberSearchCache {
+
+    private final OffHeapBlockStore<MemberSearchKey> store; // 비활성화면 null
+    private final Counter hits;
+    private final Counter misses;
+    private long epoch; // store 로 동기화
+
+    public MemberSearchCache(@Value("${member.search-cache.enabled:false}") boolean enabled,
+                             @Value("${member.search-cache.max-size:64MB}") DataSize maxSize,
+                             @Value("${member.search-cache.block-size:1KB}") DataSize blockSize,
+                             @Value("${member.search-cache.max-entry-size:1MB}") DataSize maxEntrySize,
+                             MeterRegistry registry) {
+        this.store = enabled
+                ? new OffHeapBlockStore<>(maxSize.toBytes(), (int) blockSize.toBytes(), (int) maxEntrySize.toBytes())
+                : null;
+        this.hits = Counter.builder("member.search.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("member.search.cache.requests").tag("result", "miss").register(registry);
+
+        Gauge.builder("member.search.cache.hit.ratio", this, MemberSearchCache::hitRatio).register(registry);
+        if (store != null) {
+            Gauge.builder("member.search.cache.bytes", store, OffHeapBlockStore::usedBytes)
+                    .tag("kind", "used").baseUnit("bytes").register(registry);
+            Gauge.builder("member.search.cache.bytes", store, OffHeapBlockStore::capacityBytes)
+                    .tag("kind", "capacity").baseUnit("bytes").register(registry);
+            Gauge.builder("member.search.cache.entries", store, OffHeapBlockStore::size).register(registry);
+            FunctionCounter.builder("member.search.cache.evictions", store, OffHeapBlockStore::evictions)
+                    .register(registry);
+        }
+    }
+
+    public <T> T get(MemberSearchKey key, Supplier<T> loader, MemberSearchCodec<T> codec) {
+        if (store == null || !cacheableTransaction()) {
+            return loader.get();
+        }
+
+        byte[] cached = store.get(key);
+        if (cached != null) {
+            hits.increment();
+            return codec.decode(cached);
+        }
+        misses.increment();
+
+        long loadEpoch;
+        synchronized (store) {
+            loadEpoch = epoch;
+        }
+        T result = loader.get();
+        byte[] encoded = codec.encode(result);
+        synchronized (store) {
+            if (epoch == loadEpoch) {
+                store.put(key, encoded);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 해당 상태의 회원이 포함될 수 있는 결과를 지운다.
+     */
+    void invalidate(MemberSnapshot snapshot) {
+        if (store == null) {
+            return;
+        }
+        synchronized (store) {
+            epoch++;
+            store.removeIf(key -> key.matches(snapshot));
+        }
+    }
+
+    public void invalidateAll() {
+        if (store == null) {
+            return;
+        }
+        synchronized (store) {
+            epoch++;
+            store.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    int size() {
+        return store == null ? 0 : store.size();
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * 트랜잭션 밖이거나 읽기 전용 트랜잭션일 때만 캐시한다.
+     */
+    private static boolean cacheableTransaction() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,110 @@
+package com.practice.querydsl.cache;
+
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 회원/팀 변경이 커밋된 뒤 검색 결과 캐시를 무효화한다. (Hibernate POST_COMMIT_* 이벤트)
+ * - 회원: 변경 전/후 상태가 조건에 맞는 결과만 지운다. 맞지 않는 조건의 결과는 그대로 둔다.
+ * - 팀: 팀 이름은 그 팀 회원 전체의 결과 행에 들어가므로 전부 지운다.
+ * 롤백된 변경은 이벤트가 오지 않으므로 캐시를 건드리지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberSearchCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MemberSearchCache searchCache;
+
+    @PostConstruct
+    void register() {
+        if (!searchCache.isEnabled()) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return entityClass == Member.class || entityClass == Team.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getPersister(), event.getEntity(), event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getOldState() == null) {
+            searchCache.invalidateAll(); // 변경 전 상태를 모르면(merge 등) 어떤 결과가 영향을 받는지 알 수 없다.
+            return;
+        }
+        invalidate(event.getPersister(), event.getEntity(), event.getOldState());
+        invalidate(event.getPersister(), event.getEntity(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getPersister(), event.getEntity(), event.getDeletedState());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void invalidate(EntityPersister persister, Object entity, Object[] state) {
+        if (!(entity instanceof Member) || state == null) {
+            searchCache.invalidateAll();
+            return;
+        }
+        searchCache.invalidate(snapshot(persister, state));
+    }
+
+    static MemberSnapshot snapshot(EntityPersister persister, Object[] state) {
+        List<String> properties = Arrays.asList(persister.getPropertyNames());
+        String username = (String) state[properties.indexOf("username")];
+        int age = (Integer) state[properties.indexOf("age")];
+        Object team = state[properties.indexOf("team")];
+        if (team == null) {
+            return new MemberSnapshot(username, age, false, null, true);
+        }
+        if (!Hibernate.isInitialized(team)) {
+            return new MemberSnapshot(username, age, true, null, false);
+        }
+        return new MemberSnapshot(username, age, true, ((Team) team).getName(), true);
+    }
+}
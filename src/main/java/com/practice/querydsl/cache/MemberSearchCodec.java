@@ -0,0 +1,189 @@
+package com.practice.querydsl.cache;
+
+import com.practice.querydsl.dto.MemberCursorPage;
+import com.practice.querydsl.dto.MemberTeamDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 검색 결과 ↔ byte[] 직렬화. 자바 직렬화 대신 필드만 기록한다.
+ * - 정수는 가변 길이(varint)로 쓴다. id/나이는 대부분 1~3 바이트
+ * - 팀 이름은 결과마다 사전(dictionary)으로 한 번만 쓰고 행에는 사전 번호만 쓴다.
+ */
+public abstract class MemberSearchCodec<T> {
+
+    private static final int NULL = 0;
+
+    public static final MemberSearchCodec<List<MemberTeamDto>> LIST = new MemberSearchCodec<>() {
+        @Override
+        void write(List<MemberTeamDto> value, DataOutput out) throws IOException {
+            writeRows(value, out);
+        }
+
+        @Override
+        List<MemberTeamDto> read(DataInput in) throws IOException {
+            return readRows(in);
+        }
+    };
+
+    public static MemberSearchCodec<Page<MemberTeamDto>> page(Pageable pageable) {
+        return new MemberSearchCodec<>() {
+            @Override
+            void write(Page<MemberTeamDto> value, DataOutput out) throws IOException {
+                writeVarLong(out, value.getTotalElements());
+                writeRows(value.getContent(), out);
+            }
+
+            @Override
+            Page<MemberTeamDto> read(DataInput in) throws IOException {
+                long total = readVarLong(in);
+                return new PageImpl<>(readRows(in), pageable, total);
+            }
+        };
+    }
+
+    public static final MemberSearchCodec<MemberCursorPage> CURSOR_PAGE = new MemberSearchCodec<>() {
+        @Override
+        void write(MemberCursorPage value, DataOutput out) throws IOException {
+            writeVarLong(out, value.getSize());
+            out.writeBoolean(value.isHasNext());
+            writeNullableString(out, value.getNextCursor());
+            writeRows(value.getContent(), out);
+        }
+
+        @Override
+        MemberCursorPage read(DataInput in) throws IOException {
+            int size = (int) readVarLong(in);
+            boolean hasNext = in.readBoolean();
+            String nextCursor = readNullableString(in);
+            return new MemberCursorPage(readRows(in), size, hasNext, nextCursor);
+        }
+    };
+
+    abstract void write(T value, DataOutput out) throws IOException;
+
+    abstract T read(DataInput in) throws IOException;
+
+    public byte[] encode(T value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public T decode(byte[] bytes) {
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * memberId, teamId 는 null 이면 0, 아니면 값 + 1 로 쓴다. (id 는 양수)
+     */
+    static void writeRows(List<MemberTeamDto> rows, DataOutput out) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> teamNames = new ArrayList<>();
+        for (MemberTeamDto row : rows) {
+            if (row.getTeamName() != null && dictionary.putIfAbsent(row.getTeamName(), teamNames.size() + 1) == null) {
+                teamNames.add(row.getTeamName());
+            }
+        }
+        writeVarLong(out, teamNames.size());
+        for (String teamName : teamNames) {
+            out.writeUTF(teamName);
+        }
+
+        writeVarLong(out, rows.size());
+        for (MemberTeamDto row : rows) {
+            writeVarLong(out, row.getMemberId() == null ? NULL : row.getMemberId() + 1);
+            writeNullableString(out, row.getUsername());
+            writeVarLong(out, zigZag(row.getAge()));
+            writeVarLong(out, row.getTeamId() == null ? NULL : row.getTeamId() + 1);
+            writeVarLong(out, row.getTeamName() == null ? NULL : dictionary.get(row.getTeamName()));
+        }
+    }
+
+    static List<MemberTeamDto> readRows(DataInput in) throws IOException {
+        int teamCount = (int) readVarLong(in);
+        String[] teamNames = new String[teamCount + 1];
+        for (int i = 1; i <= teamCount; i++) {
+            teamNames[i] = in.readUTF();
+        }
+
+        int rowCount = (int) readVarLong(in);
+        List<MemberTeamDto> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            long memberId = readVarLong(in);
+            String username = readNullableString(in);
+            int age = unZigZag(readVarLong(in));
+            long teamId = readVarLong(in);
+            int teamName = (int) readVarLong(in);
+            rows.add(new MemberTeamDto(
+                    memberId == NULL ? null : memberId - 1,
+                    username,
+                    age,
+                    teamId == NULL ? null : teamId - 1,
+                    teamNames[teamName]));
+        }
+        return rows;
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("잘못된 varint");
+    }
+
+    private static long zigZag(int value) {
+        return Integer.toUnsignedLong((value << 1) ^ (value >> 31));
+    }
+
+    private static int unZigZag(long value) {
+        int n = (int) value;
+        return (n >>> 1) ^ -(n & 1);
+    }
+}
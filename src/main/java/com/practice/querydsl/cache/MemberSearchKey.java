@@ -0,0 +1,58 @@
+package com.practice.querydsl.cache;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import org.springframework.util.StringUtils;
+
+/**
+ * 검색 결과 캐시 키. 조건은 검색 쿼리와 같은 규칙으로 정규화한다. (빈 문자열 = 조건 없음)
+ *
+ * @param operation 검색 메서드 (같은 조건이라도 결과 형태가 다르다)
+ * @param offset    페이지 시작 위치. 페이징이 없으면 0
+ * @param limit     페이지 크기. 페이징이 없으면 0
+ * @param cursor    키셋 페이징 커서. 없으면 null
+ */
+public record MemberSearchKey(String operation,
+                              String username,
+                              String teamName,
+                              Integer ageGoe,
+                              Integer ageLoe,
+                              long offset,
+                              int limit,
+                              String cursor) {
+
+    public static MemberSearchKey of(String operation, MemberSearchCondition condition) {
+        return of(operation, condition, 0, 0, null);
+    }
+
+    public static MemberSearchKey of(String operation, MemberSearchCondition condition,
+                                     long offset, int limit, String cursor) {
+        return new MemberSearchKey(operation,
+                StringUtils.hasText(condition.getUsername()) ? condition.getUsername() : null,
+                StringUtils.hasText(condition.getTeamName()) ? condition.getTeamName() : null,
+                condition.getAgeGoe(),
+                condition.getAgeLoe(),
+                offset, limit, cursor);
+    }
+
+    /**
+     * 이 조건의 검색 결과에 해당 상태의 회원이 포함될 수 있는지.
+     * 팀 이름을 알 수 없는 경우(초기화되지 않은 프록시)는 포함될 수 있다고 본다.
+     */
+    boolean matches(MemberSnapshot snapshot) {
+        if (username != null && !username.equals(snapshot.username())) {
+            return false;
+        }
+        if (teamName != null) {
+            if (!snapshot.hasTeam()) {
+                return false;
+            }
+            if (snapshot.teamNameKnown() && !teamName.equals(snapshot.teamName())) {
+                return false;
+            }
+        }
+        if (ageGoe != null && snapshot.age() < ageGoe) {
+            return false;
+        }
+        return ageLoe == null || snapshot.age() <= ageLoe;
+    }
+}
@@ -0,0 +1,9 @@
+package com.practice.querydsl.cache;
+
+/**
+ * 커밋된 회원 변경 전/후 상태 중 검색 조건에 쓰이는 값.
+ *
+ * @param teamNameKnown false 면 팀이 있지만 이름을 읽을 수 없었다. (지연 로딩 프록시)
+ */
+record MemberSnapshot(String username, int age, boolean hasTeam, String teamName, boolean teamNameKnown) {
+}
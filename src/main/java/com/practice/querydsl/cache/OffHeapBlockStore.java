@@ -0,0 +1,146 @@
+package com.practice.querydsl.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * 힙 밖(direct ByteBuffer)에 값을 저장하는 크기 제한 LRU 저장소.
+ * - 전체 메모리를 blockSize 단위 블록으로 나누고, 값 하나는 여러 블록에 나눠 담는다. (블록 번호 배열만 힙에 둔다)
+ * - 빈 블록은 스택(free list)으로 관리하므로 할당/해제가 O(블록 수) 이고 단편화가 없다.
+ * - 빈 블록이 모자라면 가장 오래 사용되지 않은 값부터 제거한다.
+ * 모든 메서드는 이 객체로 동기화된다. 여러 연산을 원자적으로 묶으려면 호출자가 synchronized (store) 로 감싼다.
+ */
+public class OffHeapBlockStore<K> {
+
+    private final ByteBuffer memory;
+    private final int blockSize;
+    private final int blockCount;
+    private final int maxEntryBytes;
+    private final int[] freeBlocks;
+    private int freeCount;
+    private final LinkedHashMap<K, Slot> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long evictions;
+
+    public OffHeapBlockStore(long capacityBytes, int blockSize, int maxEntryBytes) {
+        if (blockSize <= 0 || capacityBytes < blockSize) {
+            throw new IllegalArgumentException("capacity 는 blockSize 이상이어야 합니다: " + capacityBytes + ", " + blockSize);
+        }
+        long blocks = capacityBytes / blockSize;
+        if (blocks * blockSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacity 는 2GB 를 넘을 수 없습니다: " + capacityBytes);
+        }
+        this.blockSize = blockSize;
+        this.blockCount = (int) blocks;
+        this.maxEntryBytes = (int) Math.min(maxEntryBytes, blocks * blockSize);
+        this.memory = ByteBuffer.allocateDirect(blockCount * blockSize);
+        this.freeBlocks = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            freeBlocks[i] = blockCount - 1 - i;
+        }
+        this.freeCount = blockCount;
+    }
+
+    /**
+     * @return 저장하지 못한 경우(값이 maxEntryBytes 보다 큼) false
+     */
+    public synchronized boolean put(K key, byte[] value) {
+        if (value.length > maxEntryBytes) {
+            return false;
+        }
+        remove(key);
+
+        int needed = (value.length + blockSize - 1) / blockSize;
+        Iterator<Map.Entry<K, Slot>> eldest = index.entrySet().iterator();
+        while (freeCount < needed && eldest.hasNext()) {
+            release(eldest.next().getValue());
+            eldest.remove();
+            evictions++;
+        }
+
+        int[] blocks = new int[needed];
+        for (int i = 0; i < needed; i++) {
+            int block = freeBlocks[--freeCount];
+            blocks[i] = block;
+            int offset = i * blockSize;
+            memory.put(block * blockSize, value, offset, Math.min(blockSize, value.length - offset));
+        }
+        index.put(key, new Slot(blocks, value.length));
+        return true;
+    }
+
+    /**
+     * 힙으로 복사한 값. 없으면 null
+     */
+    public synchronized byte[] get(K key) {
+        Slot slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        byte[] value = new byte[slot.length];
+        for (int i = 0; i < slot.blocks.length; i++) {
+            int offset = i * blockSize;
+            memory.get(slot.blocks[i] * blockSize, value, offset, Math.min(blockSize, slot.length - offset));
+        }
+        return value;
+    }
+
+    public synchronized void remove(K key) {
+        Slot slot = index.remove(key);
+        if (slot != null) {
+            release(slot);
+        }
+    }
+
+    /**
+     * @return 제거한 값 수
+     */
+    public synchronized int removeIf(Predicate<K> predicate) {
+        int removed = 0;
+        Iterator<Map.Entry<K, Slot>> iterator = index.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Slot> entry = iterator.next();
+            if (predicate.test(entry.getKey())) {
+                release(entry.getValue());
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        index.values().forEach(this::release);
+        index.clear();
+    }
+
+    private void release(Slot slot) {
+        for (int block : slot.blocks) {
+            freeBlocks[freeCount++] = block;
+        }
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * 값이 차지한 블록 크기의 합 (블록 안의 빈 공간 포함)
+     */
+    public synchronized long usedBytes() {
+        return (long) (blockCount - freeCount) * blockSize;
+    }
+
+    public long capacityBytes() {
+        return (long) blockCount * blockSize;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    private record Slot(int[] blocks, int length) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.practice.querydsl.columnar;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.BitSet;
+
+/**
+ * application/x-member-columnar 바이너리 형식. 모든 정수는 big-endian 이다.
+ * <pre>
+ * int     magic = 'MCOL'
+ * short   version = 1
+ * int     rows, teams
+ * teams 번 반복: long teamId, UTF teamName (DataOutput.writeUTF, null 은 빈 문자열)
+ * long[rows]    memberId
+ * int[rows]     age
+ * int[rows]     teamRef (팀 사전 인덱스, 팀이 없으면 -1)
+ * int           nullWords, long[nullWords] username null 비트셋 (BitSet.toLongArray)
+ * int[rows + 1] username 오프셋 (0 부터 시작, 누적)
+ * byte[offset[rows]] username UTF-8 바이트
+ * </pre>
+ * 클라이언트는 이 클래스와 MemberColumns 두 파일만 복사하면 read() 로 디코딩할 수 있다. (JDK 외 의존성 없음)
+ */
+public final class MemberColumnarFormat {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-member-columnar";
+
+    static final int MAGIC = 0x4D434F4C; // "MCOL"
+    static final short VERSION = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private MemberColumnarFormat() {
+    }
+
+    /**
+     * out 은 닫지 않는다. (내부 버퍼만 flush)
+     */
+    public static void write(MemberColumns columns, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        int rows = columns.size();
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(rows);
+        data.writeInt(columns.teamCount());
+        for (int ref = 0; ref < columns.teamCount(); ref++) {
+            data.writeLong(columns.dictionaryTeamId(ref));
+            data.writeUTF(columns.dictionaryTeamName(ref) == null ? "" : columns.dictionaryTeamName(ref));
+        }
+        for (int row = 0; row < rows; row++) {
+            data.writeLong(columns.memberId(row));
+        }
+        for (int row = 0; row < rows; row++) {
+            data.writeInt(columns.age(row));
+        }
+        for (int row = 0; row < rows; row++) {
+            data.writeInt(columns.teamRef(row));
+        }
+
+        BitSet nulls = new BitSet(rows);
+        for (int row = 0; row < rows; row++) {
+            if (columns.usernameNull(row)) {
+                nulls.set(row);
+            }
+        }
+        long[] nullWords = nulls.toLongArray();
+        data.writeInt(nullWords.length);
+        for (long word : nullWords) {
+            data.writeLong(word);
+        }
+
+        for (int i = 0; i <= rows; i++) {
+            data.writeInt(columns.usernameOffset(i));
+        }
+        data.write(columns.usernameBytes(), 0, columns.usernameOffset(rows));
+        data.flush();
+    }
+
+    /**
+     * 형식이 맞지 않으면 IOException. in 은 닫지 않는다.
+     */
+    public static MemberColumns read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("member columnar 형식이 아닙니다.");
+        }
+        short version = data.readShort();
+        if (version != VERSION) {
+            throw new IOException("지원하지 않는 버전: " + version);
+        }
+        int rows = nonNegative(data.readInt(), "rows");
+        int teamCount = nonNegative(data.readInt(), "teams");
+
+        long[] teamIds = new long[teamCount];
+        String[] teamNames = new String[teamCount];
+        for (int ref = 0; ref < teamCount; ref++) {
+            teamIds[ref] = data.readLong();
+            teamNames[ref] = data.readUTF();
+        }
+
+        long[] memberIds = new long[rows];
+        for (int row = 0; row < rows; row++) {
+            memberIds[row] = data.readLong();
+        }
+        int[] ages = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            ages[row] = data.readInt();
+        }
+        int[] teamRefs = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            int ref = data.readInt();
+            if (ref < MemberColumns.NO_TEAM || ref >= teamCount) {
+                throw new IOException("잘못된 팀 인덱스: " + ref);
+            }
+            teamRefs[row] = ref;
+        }
+
+        long[] nullWords = new long[nonNegative(data.readInt(), "null words")];
+        for (int i = 0; i < nullWords.length; i++) {
+            nullWords[i] = data.readLong();
+        }
+
+        int[] usernameOffsets = new int[rows + 1];
+        for (int i = 0; i <= rows; i++) {
+            usernameOffsets[i] = data.readInt();
+            if (i > 0 ? usernameOffsets[i] < usernameOffsets[i - 1] : usernameOffsets[i] != 0) {
+                throw new IOException("잘못된 username 오프셋: " + i);
+            }
+        }
+        byte[] usernameBytes = new byte[usernameOffsets[rows]];
+        data.readFully(usernameBytes);
+
+        return new MemberColumns(rows, memberIds, ages, teamRefs,
+                teamIds, teamNames, teamCount,
+                usernameOffsets, usernameBytes, BitSet.valueOf(nullWords));
+    }
+
+    private static int nonNegative(int value, String name) throws IOException {
+        if (value < 0) {
+            throw new IOException("잘못된 " + name + ": " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,36 @@
+package com.practice.querydsl.columnar;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+
+/**
+ * MemberColumns <-> application/x-member-columnar.
+ * 컨트롤러가 produces 로 이 타입을 선언하고 MemberColumns 를 반환하면 Accept 헤더에 따라 이 컨버터가 선택된다.
+ */
+public class MemberColumnarHttpMessageConverter extends AbstractHttpMessageConverter<MemberColumns> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MemberColumnarFormat.MEDIA_TYPE_VALUE);
+
+    public MemberColumnarHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return MemberColumns.class == clazz;
+    }
+
+    @Override
+    protected MemberColumns readInternal(Class<? extends MemberColumns> clazz, HttpInputMessage inputMessage) throws IOException {
+        return MemberColumnarFormat.read(inputMessage.getBody());
+    }
+
+    @Override
+    protected void writeInternal(MemberColumns columns, HttpOutputMessage outputMessage) throws IOException {
+        MemberColumnarFormat.write(columns, outputMessage.getBody());
+    }
+}
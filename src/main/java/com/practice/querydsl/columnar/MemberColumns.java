@@ -0,0 +1,123 @@
+package com.practice.querydsl.columnar;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+/**
+ * 회원 검색 결과의 컬럼 형식 표현. MemberTeamDto 목록과 같은 내용을 행 객체 없이 컬럼별 배열로 담는다.
+ * - memberId, age: long[] / int[] 기본형 배열
+ * - team: (teamId, teamName) 사전 + 행마다 사전 인덱스(int). 팀이 없으면 -1
+ * - username: UTF-8 바이트를 이어 붙인 배열 + 행별 시작 오프셋. null 은 비트셋으로 표시
+ * 행 수가 n 이면 객체는 사전의 팀 이름 몇 개뿐이고 나머지는 배열 몇 개로 끝난다.
+ * 서버(MemberColumnsBuilder)와 클라이언트(MemberColumnarFormat.read) 가 같이 사용하며 Spring 에 의존하지 않는다.
+ * 배열은 size 보다 클 수 있으므로 인덱스는 size() 미만까지만 유효하다.
+ */
+public final class MemberColumns {
+
+    public static final int NO_TEAM = -1;
+
+    private final int size;
+    private final long[] memberIds;
+    private final int[] ages;
+    private final int[] teamRefs;
+    private final long[] teamIds;
+    private final String[] teamNames;
+    private final int teamCount;
+    private final int[] usernameOffsets; // size + 1 개. i 번째 username = [offsets[i], offsets[i + 1])
+    private final byte[] usernameBytes;
+    private final BitSet usernameNulls;
+
+    MemberColumns(int size, long[] memberIds, int[] ages, int[] teamRefs,
+                  long[] teamIds, String[] teamNames, int teamCount,
+                  int[] usernameOffsets, byte[] usernameBytes, BitSet usernameNulls) {
+        this.size = size;
+        this.memberIds = memberIds;
+        this.ages = ages;
+        this.teamRefs = teamRefs;
+        this.teamIds = teamIds;
+        this.teamNames = teamNames;
+        this.teamCount = teamCount;
+        this.usernameOffsets = usernameOffsets;
+        this.usernameBytes = usernameBytes;
+        this.usernameNulls = usernameNulls;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long memberId(int row) {
+        return memberIds[checkRow(row)];
+    }
+
+    public int age(int row) {
+        return ages[checkRow(row)];
+    }
+
+    /**
+     * 매번 UTF-8 바이트에서 새로 디코딩한다. 집계처럼 이름이 필요 없는 소비자는 비용을 내지 않는다.
+     */
+    public String username(int row) {
+        checkRow(row);
+        if (usernameNulls.get(row)) {
+            return null;
+        }
+        int from = usernameOffsets[row];
+        return new String(usernameBytes, from, usernameOffsets[row + 1] - from, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 팀 사전 인덱스. 팀이 없는 회원이면 NO_TEAM
+     */
+    public int teamRef(int row) {
+        return teamRefs[checkRow(row)];
+    }
+
+    public Long teamId(int row) {
+        int ref = teamRef(row);
+        return ref == NO_TEAM ? null : teamIds[ref];
+    }
+
+    public String teamName(int row) {
+        int ref = teamRef(row);
+        return ref == NO_TEAM ? null : teamNames[ref];
+    }
+
+    public int teamCount() {
+        return teamCount;
+    }
+
+    public long dictionaryTeamId(int ref) {
+        return teamIds[checkRef(ref)];
+    }
+
+    public String dictionaryTeamName(int ref) {
+        return teamNames[checkRef(ref)];
+    }
+
+    int usernameOffset(int index) {
+        return usernameOffsets[index];
+    }
+
+    byte[] usernameBytes() {
+        return usernameBytes;
+    }
+
+    boolean usernameNull(int row) {
+        return usernameNulls.get(row);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " (size " + size + ")");
+        }
+        return row;
+    }
+
+    private int checkRef(int ref) {
+        if (ref < 0 || ref >= teamCount) {
+            throw new IndexOutOfBoundsException("team ref " + ref + " (teams " + teamCount + ")");
+        }
+        return ref;
+    }
+}
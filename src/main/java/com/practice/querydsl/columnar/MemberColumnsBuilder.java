@@ -0,0 +1,92 @@
+package com.practice.querydsl.columnar;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC ResultSet 을 행 DTO 없이 바로 MemberColumns 로 채운다.
+ * 컬럼 순서는 member_id, username, age, team_id, team_name 이어야 한다. (MemberColumnarRepository 의 SQL)
+ * 팀 이름은 처음 보는 team_id 일 때만 읽어서 사전에 넣으므로 팀 이름 문자열은 팀 수만큼만 만들어진다.
+ * 배열은 두 배씩 늘리며 build() 는 복사 없이 그대로 넘긴다. 한 번만 사용하는 객체이며 스레드 세이프하지 않다.
+ */
+public class MemberColumnsBuilder implements RowCallbackHandler {
+
+    private static final int INITIAL_ROWS = 256;
+
+    private int size;
+    private long[] memberIds = new long[INITIAL_ROWS];
+    private int[] ages = new int[INITIAL_ROWS];
+    private int[] teamRefs = new int[INITIAL_ROWS];
+    private int[] usernameOffsets = new int[INITIAL_ROWS + 1];
+    private byte[] usernameBytes = new byte[INITIAL_ROWS * 16];
+    private final BitSet usernameNulls = new BitSet();
+
+    private final Map<Long, Integer> teamIndex = new HashMap<>();
+    private long[] teamIds = new long[16];
+    private String[] teamNames = new String[16];
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        long memberId = rs.getLong(1);
+        String username = rs.getString(2);
+        int age = rs.getInt(3);
+        long teamId = rs.getLong(4);
+        int teamRef = rs.wasNull() ? MemberColumns.NO_TEAM : teamRef(teamId, rs);
+        add(memberId, username, age, teamRef);
+    }
+
+    private int teamRef(long teamId, ResultSet rs) throws SQLException {
+        Integer ref = teamIndex.get(teamId);
+        if (ref != null) {
+            return ref;
+        }
+        int newRef = teamIndex.size();
+        if (newRef == teamIds.length) {
+            teamIds = Arrays.copyOf(teamIds, newRef * 2);
+            teamNames = Arrays.copyOf(teamNames, newRef * 2);
+        }
+        teamIds[newRef] = teamId;
+        teamNames[newRef] = rs.getString(5);
+        teamIndex.put(teamId, newRef);
+        return newRef;
+    }
+
+    private void add(long memberId, String username, int age, int teamRef) {
+        if (size == memberIds.length) {
+            int capacity = size * 2;
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            teamRefs = Arrays.copyOf(teamRefs, capacity);
+            usernameOffsets = Arrays.copyOf(usernameOffsets, capacity + 1);
+        }
+        memberIds[size] = memberId;
+        ages[size] = age;
+        teamRefs[size] = teamRef;
+
+        int offset = usernameOffsets[size];
+        if (username == null) {
+            usernameNulls.set(size);
+        } else {
+            byte[] bytes = username.getBytes(StandardCharsets.UTF_8);
+            if (offset + bytes.length > usernameBytes.length) {
+                usernameBytes = Arrays.copyOf(usernameBytes, Math.max(usernameBytes.length * 2, offset + bytes.length));
+            }
+            System.arraycopy(bytes, 0, usernameBytes, offset, bytes.length);
+            offset += bytes.length;
+        }
+        usernameOffsets[++size] = offset;
+    }
+
+    public MemberColumns build() {
+        return new MemberColumns(size, memberIds, ages, teamRefs,
+                teamIds, teamNames, teamIndex.size(),
+                usernameOffsets, usernameBytes, usernameNulls);
+    }
+}
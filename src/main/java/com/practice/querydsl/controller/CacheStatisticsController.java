@@ -0,0 +1,21 @@
+package com.practice.querydsl.controller;
+
+import com.practice.querydsl.dto.CacheRegionStatsDto;
+import com.practice.querydsl.monitor.SecondLevelCacheStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheStatisticsController {
+
+    private final SecondLevelCacheStatistics secondLevelCacheStatistics;
+
+    @GetMapping("/cache/regions")
+    public List<CacheRegionStatsDto> cacheRegions() {
+        return secondLevelCacheStatistics.regions();
+    }
+}
@@ -1,44 +1,30 @@
 package com.practice.querydsl.controller;
 
-import com.practice.querydsl.entity.Member;
-import com.practice.querydsl.entity.Team;
-import jakarta.annotation.PostConstruct;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import com.practice.querydsl.seed.MemberDataGenerator;
+import com.practice.querydsl.seed.MemberDataSpec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 @Profile("local")
 @Component
 @RequiredArgsConstructor
 public class InitMember {
 
-    private final InitMemberService initMemberService;
+    private final MemberDataGenerator memberDataGenerator;
+    private final MemberDataSpec memberDataSpec;
 
-    @PostConstruct // PostConstruct 와 Transactional 이 동시에 동작할 수 없기 때문에 중첩 클래스에 init() 을 정의하여 사용한다.
+    /**
+     * 애플리케이션 기동이 끝난 뒤(테이블 생성 완료) 백그라운드에서 데이터를 넣는다.
+     * 기동을 막지 않으므로 대용량 데이터도 넣을 수 있으며, 완료 여부는 MemberDataGenerator.isReady() 로 확인한다.
+     * 데이터 규모는 application.yml 의 member.seed.* 로 설정한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
     public void init() {
-        initMemberService.init();
-    }
-
-    @Component
-    static class InitMemberService {
-        @PersistenceContext
-        private EntityManager em;
-
-        @Transactional
-        public void init() {
-            Team teamA = new Team("teamA");
-            Team teamB = new Team("teamB");
-
-            em.persist(teamA);
-            em.persist(teamB);
-
-            for (int i = 0; i < 100; i++) {
-                Team selectedTeam = i % 2 == 0 ? teamA : teamB;
-                em.persist(new Member("member"+i, i, selectedTeam));
-            }
+        if (memberDataSpec.isEnabled()) {
+            memberDataGenerator.generateAsync(memberDataSpec);
         }
     }
 }
@@ -1,15 +1,31 @@
 package com.practice.querydsl.controller;
 
+import com.practice.querydsl.columnar.MemberColumnarFormat;
+import com.practice.querydsl.columnar.MemberColumns;
+import com.practice.querydsl.dto.MemberCursor;
+import com.practice.querydsl.dto.MemberCursorPage;
 import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.MemberSortKey;
 import com.practice.querydsl.dto.MemberTeamDto;
+import com.practice.querydsl.monitor.MemberSearchMetrics;
+import com.practice.querydsl.repository.MemberColumnarRepository;
 import com.practice.querydsl.repository.MemberJpaRepository;
 import com.practice.querydsl.repository.MemberRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -18,25 +34,103 @@ public class MemberController {
 
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberColumnarRepository memberColumnarRepository;
+    private final ObjectMapper objectMapper;
+    private final MemberSearchMetrics searchMetrics;
+
+    private static final int STREAM_FLUSH_INTERVAL = 1000;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
     @GetMapping("/v1/members")
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return memberJpaRepository.searchByWhereParam(condition);
+        return searchMetrics.record("v1", condition,
+                () -> memberJpaRepository.searchByWhereParam(condition),
+                List::size, List::size);
+    }
+
+    /**
+     * /v1/members 의 컬럼 형식 버전. Accept: application/x-member-columnar 이면 이 메서드가 선택된다.
+     * JDBC 결과를 행 DTO 없이 기본형 배열에 채우고 팀은 사전으로 한 번만 보낸다. (형식은 MemberColumnarFormat 참고)
+     */
+    @GetMapping(value = "/v1/members", produces = MemberColumnarFormat.MEDIA_TYPE_VALUE)
+    public MemberColumns searchMemberV1Columnar(MemberSearchCondition condition) {
+        return searchMetrics.record("v1-columnar", condition,
+                () -> memberColumnarRepository.search(condition),
+                MemberColumns::size, MemberColumns::size);
+    }
+
+    /**
+     * /v1/members 의 스트리밍 버전. 한 줄에 하나의 JSON 객체(NDJSON)를 DB 커서에서 읽는 즉시 응답으로 내보낸다.
+     * 전체 결과를 메모리에 올리지 않으므로 결과가 수백만 건이어도 힙 사용량이 일정하고 첫 바이트가 바로 나간다.
+     */
+    @GetMapping(value = "/v1/members/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMemberV1(MemberSearchCondition condition) {
+        StreamingResponseBody body = outputStream -> {
+            long[] written = {0};
+            memberJpaRepository.streamByWhereParam(condition, row -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(row));
+                    outputStream.write('\n');
+                    if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                        outputStream.flush();
+                    }
+                } catch (IOException e) {
+                    // 클라이언트가 연결을 끊으면 여기서 중단되고, 레포지토리에서 커서가 정리된다.
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/v2/members")
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageSimple(condition, pageable);
+        return searchMetrics.record("v2", condition,
+                () -> memberRepository.searchPageSimple(condition, pageable),
+                page -> page.getNumberOfElements(), page -> pageable.getOffset() + page.getNumberOfElements());
     }
 
     @GetMapping("/v3/members")
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageComplex(condition, pageable);
+        return searchMetrics.record("v3", condition,
+                () -> memberRepository.searchPageComplex(condition, pageable),
+                page -> page.getNumberOfElements(), page -> pageable.getOffset() + page.getNumberOfElements());
     }
 
     @GetMapping("/v4/members")
     public Page<MemberTeamDto> searchMemberV4(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageCountOptimization(condition, pageable);
+        return searchMetrics.record("v4", condition,
+                () -> memberRepository.searchPageCountOptimization(condition, pageable),
+                page -> page.getNumberOfElements(), page -> pageable.getOffset() + page.getNumberOfElements());
+    }
+
+    /**
+     * 키셋 페이징. 첫 요청은 sort 로 정렬 키를 고르고, 이후에는 응답의 nextCursor 를 cursor 로 넘긴다.
+     * (커서에 정렬 키가 포함되어 있으므로 cursor 가 있으면 sort 는 무시된다.)
+     * 잘못된 커서 토큰이나 1 보다 작은 size 는 400, size 는 최대 MAX_CURSOR_PAGE_SIZE 로 자른다.
+     */
+    @GetMapping("/v5/members")
+    public MemberCursorPage searchMemberV5(MemberSearchCondition condition,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "ID") MemberSortKey sort,
+                                           @RequestParam(defaultValue = "20") int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size 는 1 이상이어야 합니다: " + size);
+        }
+        int pageSize = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        MemberCursor memberCursor;
+        try {
+            memberCursor = cursor != null ? MemberCursor.decode(cursor) : MemberCursor.first(sort);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        // 다음 페이지 존재 여부를 알기 위해 size + 1 건을 읽는다.
+        return searchMetrics.record("v5", condition,
+                () -> memberRepository.searchAfter(condition, memberCursor, pageSize),
+                page -> page.getContent().size(), page -> page.getContent().size() + (page.isHasNext() ? 1 : 0));
     }
 
 }
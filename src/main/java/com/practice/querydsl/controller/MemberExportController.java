@@ -0,0 +1,61 @@
+package com.practice.querydsl.controller;
+
+import com.practice.querydsl.export.MemberExportFormat;
+import com.practice.querydsl.export.MemberExportResult;
+import com.practice.querydsl.export.MemberExportSpec;
+import com.practice.querydsl.export.MemberExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+
+/**
+ * 회원 전체 내보내기. 오래 걸리므로 백그라운드에서 실행하고 진행 상태는 GET 으로 확인한다.
+ * 파일은 member.export.directory 에만 쓴다. (요청으로 경로를 받지 않는다)
+ * 잘못된 설정(파티션 수가 커넥션 풀보다 큰 경우 등)은 400, 이미 실행 중이면 409 를 바로 돌려준다.
+ */
+@RestController
+public class MemberExportController {
+
+    private final MemberExporter memberExporter;
+    private final Path directory;
+
+    public MemberExportController(MemberExporter memberExporter,
+                                  @Value("${member.export.directory:build/export}") Path directory) {
+        this.memberExporter = memberExporter;
+        this.directory = directory;
+    }
+
+    @PostMapping("/v1/members/export")
+    public ResponseEntity<ExportStatus> export(@RequestParam(defaultValue = "CSV") MemberExportFormat format,
+                                               @RequestParam(defaultValue = "1") int partitions,
+                                               @RequestParam(defaultValue = "false") boolean resume) {
+        MemberExportSpec spec = new MemberExportSpec();
+        spec.setDirectory(directory);
+        spec.setFormat(format);
+        spec.setPartitions(partitions);
+        spec.setResume(resume);
+        try {
+            memberExporter.exportAsync(spec);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(status());
+        }
+        return ResponseEntity.accepted().body(status());
+    }
+
+    @GetMapping("/v1/members/export")
+    public ExportStatus status() {
+        return new ExportStatus(memberExporter.getState(), memberExporter.getLastResult());
+    }
+
+    public record ExportStatus(MemberExporter.State state, MemberExportResult lastResult) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.practice.querydsl.controller;
+
+import com.practice.querydsl.importer.MemberImportFormat;
+import com.practice.querydsl.importer.MemberImportResult;
+import com.practice.querydsl.importer.MemberImportSpec;
+import com.practice.querydsl.importer.MemberImporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+
+/**
+ * 회원 대량 가져오기. 요청 본문을 그대로 스트림으로 읽는다. (multipart 처럼 임시 파일이나 메모리에 먼저 받지 않는다)
+ * curl -X POST -H 'Content-Type: text/csv' --data-binary @members.csv localhost:8080/v1/members/import
+ */
+@RestController
+public class MemberImportController {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final MemberImporter memberImporter;
+    private final int rowsPerStatement;
+    private final int chunkSize;
+
+    public MemberImportController(MemberImporter memberImporter,
+                                  @Value("${member.import.rows-per-statement:100}") int rowsPerStatement,
+                                  @Value("${member.import.chunk-size:10000}") int chunkSize) {
+        this.memberImporter = memberImporter;
+        this.rowsPerStatement = rowsPerStatement;
+        this.chunkSize = chunkSize;
+    }
+
+    @PostMapping(value = "/v1/members/import", consumes = TEXT_CSV_VALUE)
+    public MemberImportResult importCsv(InputStream body,
+                                        @RequestParam(defaultValue = "false") boolean createMissingTeams,
+                                        @RequestParam(defaultValue = "-1") long rejectLimit) {
+        return importMembers(body, MemberImportFormat.CSV, createMissingTeams, rejectLimit);
+    }
+
+    @PostMapping(value = "/v1/members/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public MemberImportResult importNdjson(InputStream body,
+                                           @RequestParam(defaultValue = "false") boolean createMissingTeams,
+                                           @RequestParam(defaultValue = "-1") long rejectLimit) {
+        return importMembers(body, MemberImportFormat.NDJSON, createMissingTeams, rejectLimit);
+    }
+
+    private MemberImportResult importMembers(InputStream body, MemberImportFormat format,
+                                             boolean createMissingTeams, long rejectLimit) {
+        MemberImportSpec spec = new MemberImportSpec();
+        spec.setFormat(format);
+        spec.setRowsPerStatement(rowsPerStatement);
+        spec.setChunkSize(chunkSize);
+        spec.setCreateMissingTeams(createMissingTeams);
+        spec.setRejectLimit(rejectLimit);
+        try {
+            return memberImporter.importMembers(body, spec);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
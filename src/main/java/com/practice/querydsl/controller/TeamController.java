@@ -0,0 +1,34 @@
+package com.practice.querydsl.controller;
+
+import com.practice.querydsl.dto.TeamMembersDto;
+import com.practice.querydsl.dto.TeamStatsDto;
+import com.practice.querydsl.repository.TeamRepository;
+import com.practice.querydsl.repository.TeamStatisticsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamRepository teamRepository;
+    private final TeamStatisticsRepository teamStatisticsRepository;
+
+    /**
+     * 팀 한 페이지와 그 팀들의 회원. 회원은 팀 id 묶음(member.team-listing.batch-size)당 쿼리 한 번으로 가져온다.
+     */
+    @GetMapping("/v1/teams")
+    public Page<TeamMembersDto> teams(Pageable pageable) {
+        return teamRepository.findTeamsWithMembers(pageable);
+    }
+
+    @GetMapping("/v1/teams/stats")
+    public List<TeamStatsDto> teamStats() {
+        return teamStatisticsRepository.findAll();
+    }
+}
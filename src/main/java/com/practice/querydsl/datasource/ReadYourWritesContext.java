@@ -0,0 +1,68 @@
+package com.practice.querydsl.datasource;
+
+import java.time.Duration;
+import java.util.function.LongConsumer;
+
+/**
+ * read-your-writes 창을 쓴 쪽(요청 또는 스레드)에만 적용하기 위한 스레드 로컬 상태.
+ * - 웹 요청: ReadYourWritesInterceptor 가 쿠키에 담긴 시각으로 열고, 쓰기가 커밋되면 그 시각을 다시 쿠키로 내려준다.
+ *   그래서 같은 클라이언트의 다음 요청이 다른 스레드/인스턴스로 가도 창이 유지된다.
+ * - 요청 밖(배치, 테스트): 쓰기를 커밋한 스레드에만 남는다. 다른 스레드에서 실행되는 읽기에는 전달되지 않는다.
+ * - 요청이 읽기를 다른 스레드로 넘길 때(동시 카운트 쿼리)는 primaryUntil() 로 창을 꺼내서 그 스레드에서 open 한다.
+ * 시각은 요청 사이를 건너가므로 nanoTime 이 아니라 epoch 밀리초를 사용한다.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    /**
+     * primaryUntil 까지는 읽기도 primary 로 보낸다. 쓰기가 커밋되면 새 시각으로 onWrite 를 호출한다.
+     */
+    public static void open(long primaryUntil, LongConsumer onWrite) {
+        CURRENT.set(new Scope(primaryUntil, onWrite));
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 현재 스레드의 창이 끝나는 시각. 창이 없으면 0
+     */
+    public static long primaryUntil() {
+        Scope scope = CURRENT.get();
+        return scope == null ? 0 : scope.primaryUntil;
+    }
+
+    static boolean readFromPrimary() {
+        Scope scope = CURRENT.get();
+        return scope != null && System.currentTimeMillis() < scope.primaryUntil;
+    }
+
+    static void writeCommitted(Duration window) {
+        long until = System.currentTimeMillis() + window.toMillis();
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            CURRENT.set(new Scope(until, null));
+            return;
+        }
+        scope.primaryUntil = until;
+        if (scope.onWrite != null) {
+            scope.onWrite.accept(until);
+        }
+    }
+
+    private static final class Scope {
+
+        private long primaryUntil;
+        private final LongConsumer onWrite;
+
+        Scope(long primaryUntil, LongConsumer onWrite) {
+            this.primaryUntil = primaryUntil;
+            this.onWrite = onWrite;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.practice.querydsl.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * 요청마다 ReadYourWritesContext 를 연다. 쓰기를 커밋한 클라이언트에게는 primary 로 읽어야 하는 시각을 쿠키로 내려주고,
+ * 다음 요청에서 그 쿠키를 읽어 창을 이어간다. (다른 클라이언트의 읽기는 계속 레플리카로 간다)
+ * 쿠키는 커밋 시점에 추가하므로 응답이 이미 커밋된 뒤(스트리밍 중)의 쓰기는 쿠키로 전달되지 않는다.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    static final String COOKIE = "member-read-primary-until";
+
+    private final Duration window;
+
+    public ReadYourWritesInterceptor(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWritesContext.open(primaryUntil(request), until -> response.addCookie(cookie(until)));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWritesContext.close(); // 비동기 처리는 다른 스레드에서 이어지므로 여기서 정리
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadYourWritesContext.close();
+    }
+
+    /**
+     * 클라이언트가 보낸 값이므로 지금부터 window 이후로는 늘릴 수 없게 자른다.
+     */
+    private long primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis() + window.toMillis());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private Cookie cookie(long until) {
+        Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (window.toMillis() + 999) / 1000));
+        return cookie;
+    }
+}
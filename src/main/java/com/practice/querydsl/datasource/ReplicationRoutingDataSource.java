@@ -0,0 +1,154 @@
+package com.practice.querydsl.datasource;
+
+import com.practice.querydsl.datasource.RoutingDataSourceProperties.Selection;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 트랜잭션 속성에 따라 primary / replica 로 커넥션을 나눈다.
+ * - 읽기 전용 트랜잭션(@Transactional(readOnly = true)) → 레플리카 중 하나 (ROUND_ROBIN 또는 LEAST_LOADED)
+ * - 그 외(쓰기 트랜잭션, 트랜잭션 없음) → primary
+ * - 실제로 쓰기 문장을 실행한 트랜잭션이 커밋된 뒤 readYourWritesWindow 동안은 그 요청(클라이언트)의 읽기도 primary 로 보낸다.
+ *   (복제 지연 대비) 창은 쓴 쪽에만 적용된다. ReadYourWritesContext, ReadYourWritesInterceptor 참고
+ *   readOnly 가 아니어도 조회만 한 트랜잭션은 창을 열지 않는다. (WriteDetectingConnection 으로 쓰기 문장 실행 여부를 본다)
+ * 트랜잭션 시작 시점에는 아직 readOnly 여부가 TransactionSynchronizationManager 에 없으므로,
+ * 반드시 LazyConnectionDataSourceProxy 로 감싸서 첫 SQL 실행 시점에 커넥션을 고르게 해야 한다. (RoutingDataSourceConfig)
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Selection selection;
+    private final Duration readYourWritesWindow;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicationRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                        Selection selection, Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.replicaKeys = new ArrayList<>(replicas.keySet());
+        this.selection = selection;
+        this.readYourWritesWindow = readYourWritesWindow;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || ReadYourWritesContext.readFromPrimary()) {
+            return PRIMARY;
+        }
+        return selectReplica();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trackWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trackWrites(super.getConnection(username, password));
+    }
+
+    /**
+     * 쓰기 트랜잭션의 커넥션은 첫 쓰기 문장이 실행될 때 커밋 콜백을 등록하도록 감싼다.
+     */
+    private Connection trackWrites(Connection connection) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return connection;
+        }
+        return WriteDetectingConnection.wrap(connection, this::registerWriteCommit);
+    }
+
+    /**
+     * 쓰기 트랜잭션마다 한 번만 커밋 콜백을 등록한다. (트랜잭션 리소스로 등록 여부 표시)
+     */
+    private void registerWriteCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ReadYourWritesContext.writeCommitted(readYourWritesWindow);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicationRoutingDataSource.this);
+            }
+        });
+    }
+
+    private String selectReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        if (selection == Selection.ROUND_ROBIN) {
+            return replicaKeys.get(start);
+        }
+
+        // 동률이면 round robin 순서로 앞선 레플리카를 고른다.
+        String best = null;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            int active = activeConnections(replicas.get(key));
+            if (active < bestActive) {
+                best = key;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private static int activeConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections(); // 풀은 첫 커넥션 요청 때 만들어진다.
+        }
+        return 0;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            close(replica);
+        }
+        close(primary);
+    }
+
+    private static void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.practice.querydsl.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * member.datasource.routing.enabled=true 이면 DataSource 를 primary + 레플리카 라우팅으로 바꾼다.
+ * 이 빈이 등록되면 스프링 부트의 기본 DataSource 자동 설정은 물러난다.
+ * 레플리카로의 복제는 DB 쪽에서 구성해야 한다. (ddl-auto 는 primary 에만 적용된다)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "member.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig implements DisposableBean {
+
+    private ReplicationRoutingDataSource routingDataSource;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, RoutingDataSourceProperties properties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<RoutingDataSourceProperties.Replica> replicaProperties = properties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            RoutingDataSourceProperties.Replica replica = replicaProperties.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            dataSource.setPoolName("replica-" + i);
+            replicas.put(dataSource.getPoolName(), dataSource);
+        }
+
+        routingDataSource = new ReplicationRoutingDataSource(primary, replicas,
+                properties.getSelection(), properties.getReadYourWritesWindow());
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesWebConfig(RoutingDataSourceProperties properties) {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(properties.getReadYourWritesWindow());
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (routingDataSource != null) {
+            routingDataSource.destroy();
+        }
+    }
+}
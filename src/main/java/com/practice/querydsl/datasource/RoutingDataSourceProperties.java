@@ -0,0 +1,43 @@
+package com.practice.querydsl.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기/쓰기 데이터소스 라우팅 설정. (member.datasource.routing.*)
+ * 주 데이터소스(primary)는 spring.datasource.* 를 그대로 사용한다.
+ */
+@Data
+@ConfigurationProperties(prefix = "member.datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled = false;
+
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    /**
+     * 쓰기 트랜잭션이 커밋된 뒤 이 시간 동안은 같은 요청(클라이언트)의 읽기 전용 트랜잭션도 primary 로 보낸다.
+     * 복제 지연보다 길게 잡아야 방금 쓴 데이터를 읽지 못하는 일이 없다.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(1);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    public enum Selection {
+        /** 레플리카를 순서대로 돌아가며 사용 */
+        ROUND_ROBIN,
+        /** 사용 중인(active) 커넥션이 가장 적은 레플리카 사용 */
+        LEAST_LOADED
+    }
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,61 @@
+package com.practice.querydsl.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Connection → Statement 를 JDK 동적 프록시로 감싸 쓰기 문장이 실행되면 onWrite 를 호출한다.
+ * executeQuery 만 읽기로 보고, 나머지 execute*(executeUpdate, executeBatch, execute) 는 쓰기로 본다.
+ * execute 는 조회일 수도 있지만 결과를 보고 판단하기 전에 이미 실행되었으므로 안전한 쪽(쓰기)을 택한다.
+ */
+final class WriteDetectingConnection {
+
+    private WriteDetectingConnection() {
+    }
+
+    static Connection wrap(Connection connection, Runnable onWrite) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, new StatementHandler(statement, onWrite));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, new StatementHandler(statement, onWrite));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, new StatementHandler(statement, onWrite));
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(WriteDetectingConnection.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private record StatementHandler(Statement target, Runnable onWrite) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute") && !name.equals("executeQuery")) {
+                onWrite.run();
+            }
+            return WriteDetectingConnection.invoke(target, method, args);
+        }
+    }
+}
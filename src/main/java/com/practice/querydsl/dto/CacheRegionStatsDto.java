@@ -0,0 +1,14 @@
+package com.practice.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheRegionStatsDto {
+
+    private final String region;
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+    private final long elementCount;
+    private final long evictionCount; // JCache 통계가 없으면 -1
+}
@@ -0,0 +1,59 @@
+package com.practice.querydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋 페이징 커서. 마지막으로 내려준 행의 정렬 키 값과 member_id 를 담는다.
+ * 클라이언트에게는 Base64(URL-safe) 로 인코딩한 불투명(opaque) 토큰으로만 노출한다.
+ */
+@Getter
+@ToString
+public class MemberCursor {
+
+    private static final String DELIMITER = ":";
+
+    private final MemberSortKey sortKey;
+    private final Long lastId;   // null 이면 첫 페이지
+    private final Integer lastAge;
+
+    private MemberCursor(MemberSortKey sortKey, Long lastId, Integer lastAge) {
+        this.sortKey = sortKey;
+        this.lastId = lastId;
+        this.lastAge = lastAge;
+    }
+
+    public static MemberCursor first(MemberSortKey sortKey) {
+        return new MemberCursor(sortKey, null, null);
+    }
+
+    public static MemberCursor after(MemberSortKey sortKey, MemberTeamDto last) {
+        return new MemberCursor(sortKey, last.getMemberId(), last.getAge());
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    public String encode() {
+        String raw = sortKey.name() + DELIMITER + lastId + DELIMITER + lastAge;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(DELIMITER);
+            MemberSortKey sortKey = MemberSortKey.valueOf(parts[0]);
+            Long lastId = Long.valueOf(parts[1]);
+            Integer lastAge = sortKey == MemberSortKey.AGE ? Integer.valueOf(parts[2]) : null;
+            return new MemberCursor(sortKey, lastId, lastAge);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서 토큰입니다: " + token, e);
+        }
+    }
+}
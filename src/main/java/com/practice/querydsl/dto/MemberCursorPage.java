@@ -0,0 +1,24 @@
+package com.practice.querydsl.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 결과. 다음 페이지가 없으면 nextCursor 는 null 이다.
+ */
+@Getter
+public class MemberCursorPage {
+
+    private final List<MemberTeamDto> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public MemberCursorPage(List<MemberTeamDto> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+}
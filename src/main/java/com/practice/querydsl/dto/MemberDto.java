@@ -1,6 +1,7 @@
 package com.practice.querydsl.dto;
 
 
+import com.practice.querydsl.mapper.GenerateMapper;
 import com.querydsl.core.annotations.QueryProjection;
 import lombok.ToString;
 
@@ -15,6 +16,7 @@ public class MemberDto {
     }
 
     @QueryProjection // === 주의 === 컴파일 필요 => QMemberDto 생성
+    @GenerateMapper // 컴파일 시 MemberDtoMapper 생성 (리플렉션 없는 생성자 호출)
     public MemberDto(String username, int age) {
         this.username = username;
         this.age = age;
@@ -0,0 +1,10 @@
+package com.practice.querydsl.dto;
+
+/**
+ * 키셋(seek) 페이징에서 지원하는 정렬 키.
+ * 모든 정렬은 member_id 를 타이브레이커로 사용하여 커서 위치가 항상 유일하도록 한다.
+ */
+public enum MemberSortKey {
+    ID,
+    AGE
+}
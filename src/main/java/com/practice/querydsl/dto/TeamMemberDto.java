@@ -0,0 +1,23 @@
+package com.practice.querydsl.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+@Data
+public class TeamMemberDto {
+
+    private Long memberId;
+    private String username;
+    private int age;
+    @JsonIgnore
+    private Long teamId; // 팀별로 묶을 때만 사용 (응답에서는 TeamMembersDto.teamId 로 충분)
+
+    @QueryProjection
+    public TeamMemberDto(Long memberId, String username, int age, Long teamId) {
+        this.memberId = memberId;
+        this.username = username;
+        this.age = age;
+        this.teamId = teamId;
+    }
+}
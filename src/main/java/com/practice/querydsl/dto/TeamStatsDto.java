@@ -0,0 +1,27 @@
+package com.practice.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+@Data
+public class TeamStatsDto {
+
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private long ageSum;
+    private double ageAvg;
+    private Integer ageMin;
+    private Integer ageMax;
+
+    @QueryProjection
+    public TeamStatsDto(Long teamId, String teamName, long memberCount, long ageSum, Integer ageMin, Integer ageMax) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+        this.ageAvg = memberCount == 0 ? 0 : (double) ageSum / memberCount;
+        this.ageMin = ageMin;
+        this.ageMax = ageMax;
+    }
+}
@@ -1,8 +1,10 @@
 package com.practice.querydsl.dto;
 
+import com.practice.querydsl.mapper.GenerateMapper;
 import lombok.ToString;
 
 @ToString(of = {"name", "age"})
+@GenerateMapper(properties = {"name", "age"}) // 컴파일 시 UserDtoMapper 생성 (기본 생성자 + setter 호출)
 public class UserDto {
 
     private String name;
@@ -2,14 +2,25 @@ package com.practice.querydsl.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Member.CACHE_REGION) // 2차 캐시 (리전 설정: application.conf)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
+@Table(indexes = { // 검색 조건 접근 경로 (MemberSearchIndexAdvisor 로 검증)
+        @Index(name = "idx_member_username", columnList = "username"),
+        @Index(name = "idx_member_age", columnList = "age"),
+        @Index(name = "idx_member_team_age", columnList = "team_id, age") // teamName + 나이 범위 검색
+})
 public class Member {
 
+    public static final String CACHE_REGION = "member"; // Team.CACHE_REGION 참고
+
     @Id
     @GeneratedValue
     @Column(name = "member_id")
@@ -5,16 +5,25 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Team.CACHE_REGION) // 2차 캐시 (리전 설정: application.conf)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
 public class Team {
 
+    // Caffeine JCache 는 리전 이름을 설정 경로로 찾으므로 점(.)이 없는 이름을 쓴다.
+    public static final String CACHE_REGION = "team";
+    public static final String MEMBERS_CACHE_REGION = "team-members";
+
     @Id
     @GeneratedValue
     @Column(name = "team_id")
@@ -22,6 +31,7 @@ public class Team {
 
     private String name;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Team.MEMBERS_CACHE_REGION) // 컬렉션 캐시는 회원 id 목록만 저장한다.
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,37 @@
+package com.practice.querydsl.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * 팀별 회원 통계 읽기 모델. (count/sum/min/max 를 미리 계산해 둔 것, avg 는 sum / count)
+ * 회원 변경 시 TeamStatisticsMaintainer 가 JDBC 로 갱신하므로 엔티티로는 읽기만 한다.
+ * team 과 연관관계를 두지 않는다. (팀 삭제와 통계 행 삭제의 순서를 맞출 필요가 없도록)
+ */
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+@Table(name = "team_statistics")
+public class TeamStatistics {
+
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    private long memberCount;
+
+    private long ageSum;
+
+    private Integer minAge; // 회원이 없으면 null
+
+    private Integer maxAge;
+}
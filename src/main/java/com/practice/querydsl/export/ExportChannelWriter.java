@@ -0,0 +1,85 @@
+package com.practice.querydsl.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 큰 direct 버퍼에 모았다가 가득 차면 FileChannel 에 한 번에 쓴다.
+ * 행마다 write 시스템 콜을 하지 않고, direct 버퍼라서 채널에 쓸 때 힙 -> 네이티브 복사도 없다.
+ * 한 행이 버퍼 경계에 걸쳐도 되며 (put 이 나눠서 쓴다), flush() 가 돌려주는 파일 위치가 체크포인트 위치다.
+ */
+final class ExportChannelWriter implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    ExportChannelWriter(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putShort(short value) throws IOException {
+        ensure(Short.BYTES);
+        buffer.putShort(value);
+    }
+
+    void put(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * 버퍼를 파일에 쓰고 현재 파일 위치를 돌려준다.
+     */
+    long flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return channel.position();
+    }
+
+    /**
+     * flush + fsync. 체크포인트에 기록한 위치까지는 디스크에 있다는 것을 보장한다.
+     */
+    long sync() throws IOException {
+        long position = flush();
+        channel.force(false);
+        return position;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
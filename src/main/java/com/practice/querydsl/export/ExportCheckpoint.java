@@ -0,0 +1,94 @@
+package com.practice.querydsl.export;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * 파티션 진행 상태. position 은 lastId 행까지 fsync 된 파일 길이이므로
+ * 이어서 실행할 때 파일을 position 으로 자르고 lastId 다음 행부터 다시 쓴다. (중간에 잘린 행은 버려진다)
+ * 임시 파일에 쓴 뒤 rename 하므로 체크포인트 파일 자체가 반쯤 써진 상태로 남지 않는다.
+ */
+record ExportCheckpoint(int partition, int partitions, long fromId, long toId, MemberExportFormat format,
+                        long lastId, long position, long rows, boolean done) {
+
+    static ExportCheckpoint start(int partition, int partitions, IdRange range, MemberExportFormat format) {
+        return new ExportCheckpoint(partition, partitions, range.fromId(), range.toId(), format,
+                range.fromId() - 1, 0, 0, false);
+    }
+
+    IdRange range() {
+        return new IdRange(fromId, toId);
+    }
+
+    ExportCheckpoint advance(long lastId, long position, long rows) {
+        return new ExportCheckpoint(partition, partitions, fromId, toId, format, lastId, position, rows, false);
+    }
+
+    ExportCheckpoint complete(long position, long rows) {
+        return new ExportCheckpoint(partition, partitions, fromId, toId, format, lastId, position, rows, true);
+    }
+
+    /**
+     * 같은 설정(파티션 수, 형식)으로 실행한 체크포인트인지 확인한다. 다르면 이어 쓸 수 없다.
+     */
+    ExportCheckpoint verify(int partitions, MemberExportFormat format) {
+        if (this.partitions != partitions || this.format != format) {
+            throw new IllegalStateException(String.format(
+                    "체크포인트(파티션 %d개, %s)가 현재 설정(파티션 %d개, %s)과 다릅니다. resume 없이 다시 실행하세요.",
+                    this.partitions, this.format, partitions, format));
+        }
+        return this;
+    }
+
+    /**
+     * 마지막 파티션은 이전 실행 이후 추가된 회원까지 포함하도록 구간 끝을 늘린다. (앞 파티션 구간은 그대로 유지)
+     */
+    ExportCheckpoint extendTo(long toId) {
+        if (toId <= this.toId) {
+            return this;
+        }
+        return new ExportCheckpoint(partition, partitions, fromId, toId, format, lastId, position, rows, false);
+    }
+
+    static ExportCheckpoint load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return new ExportCheckpoint(
+                Integer.parseInt(properties.getProperty("partition")),
+                Integer.parseInt(properties.getProperty("partitions")),
+                Long.parseLong(properties.getProperty("fromId")),
+                Long.parseLong(properties.getProperty("toId")),
+                MemberExportFormat.valueOf(properties.getProperty("format")),
+                Long.parseLong(properties.getProperty("lastId")),
+                Long.parseLong(properties.getProperty("position")),
+                Long.parseLong(properties.getProperty("rows")),
+                Boolean.parseBoolean(properties.getProperty("done")));
+    }
+
+    void save(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("partition", Integer.toString(partition));
+        properties.setProperty("partitions", Integer.toString(partitions));
+        properties.setProperty("fromId", Long.toString(fromId));
+        properties.setProperty("toId", Long.toString(toId));
+        properties.setProperty("format", format.name());
+        properties.setProperty("lastId", Long.toString(lastId));
+        properties.setProperty("position", Long.toString(position));
+        properties.setProperty("rows", Long.toString(rows));
+        properties.setProperty("done", Boolean.toString(done));
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,26 @@
+package com.practice.querydsl.export;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * member_id 구간 [fromId, toId]. fromId > toId 이면 빈 구간이다.
+ */
+record IdRange(long fromId, long toId) {
+
+    /**
+     * 같은 폭으로 나눈다. id 가 고르게 분포한다고 보는 것이므로 (시퀀스 id) 파티션별 행 수는 대략 같다.
+     * 파티션 수보다 id 가 적으면 뒤쪽 파티션은 빈 구간이 된다. (파일은 헤더만 있다)
+     */
+    List<IdRange> split(int partitions) {
+        List<IdRange> ranges = new ArrayList<>(partitions);
+        long span = Math.max(toId - fromId + 1, 0);
+        long width = Math.max((span + partitions - 1) / partitions, 1);
+        for (int i = 0; i < partitions; i++) {
+            long from = fromId + i * width;
+            long to = i == partitions - 1 ? Math.max(toId, from - 1) : Math.min(toId, from + width - 1);
+            ranges.add(new IdRange(from, to));
+        }
+        return ranges;
+    }
+}
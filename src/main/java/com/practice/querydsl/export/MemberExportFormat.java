@@ -0,0 +1,112 @@
+package com.practice.querydsl.export;
+
+import com.practice.querydsl.dto.MemberTeamDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 내보내기 파일 형식. 파티션마다 파일 하나(members-{파티션}.{extension})를 만든다.
+ */
+public enum MemberExportFormat {
+
+    /**
+     * member_id,username,age,team_id,team_name (RFC 4180, UTF-8). null 은 빈 칸
+     */
+    CSV("csv") {
+        @Override
+        void writeHeader(ExportChannelWriter writer) throws IOException {
+            writer.put(CSV_HEADER);
+        }
+
+        @Override
+        void writeRow(ExportChannelWriter writer, MemberTeamDto row, StringBuilder line) throws IOException {
+            line.setLength(0);
+            line.append(row.getMemberId()).append(',');
+            appendCsv(line, row.getUsername()).append(',');
+            line.append(row.getAge()).append(',');
+            if (row.getTeamId() != null) {
+                line.append(row.getTeamId());
+            }
+            line.append(',');
+            appendCsv(line, row.getTeamName()).append('\n');
+            writer.put(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    },
+
+    /**
+     * big-endian. 헤더: int magic 'MEXP', short version 1
+     * 행: long memberId, int age, long teamId (-1 = 팀 없음), username, teamName
+     * 문자열: short 바이트 길이 (-1 = null) + UTF-8 바이트
+     */
+    BINARY("bin") {
+        @Override
+        void writeHeader(ExportChannelWriter writer) throws IOException {
+            writer.putInt(BINARY_MAGIC);
+            writer.putShort(BINARY_VERSION);
+        }
+
+        @Override
+        void writeRow(ExportChannelWriter writer, MemberTeamDto row, StringBuilder line) throws IOException {
+            writer.putLong(row.getMemberId());
+            writer.putInt(row.getAge());
+            writer.putLong(row.getTeamId() == null ? NO_TEAM : row.getTeamId());
+            putString(writer, row.getUsername());
+            putString(writer, row.getTeamName());
+        }
+    };
+
+    public static final int BINARY_MAGIC = 0x4D455850; // "MEXP"
+    public static final short BINARY_VERSION = 1;
+    public static final long NO_TEAM = -1;
+
+    private static final byte[] CSV_HEADER = "member_id,username,age,team_id,team_name\n".getBytes(StandardCharsets.UTF_8);
+
+    private final String extension;
+
+    MemberExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    abstract void writeHeader(ExportChannelWriter writer) throws IOException;
+
+    /**
+     * @param line 행마다 새로 만들지 않도록 파티션에서 재사용하는 버퍼
+     */
+    abstract void writeRow(ExportChannelWriter writer, MemberTeamDto row, StringBuilder line) throws IOException;
+
+    private static StringBuilder appendCsv(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    private static void putString(ExportChannelWriter writer, String value) throws IOException {
+        if (value == null) {
+            writer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("문자열이 너무 깁니다: " + bytes.length + " bytes");
+        }
+        writer.putShort((short) bytes.length);
+        writer.put(bytes);
+    }
+}
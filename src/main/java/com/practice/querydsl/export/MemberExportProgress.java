@@ -0,0 +1,7 @@
+package com.practice.querydsl.export;
+
+/**
+ * @param rows 파티션에서 지금까지 쓴 행 수 (이전 실행에서 쓴 행 포함)
+ */
+public record MemberExportProgress(int partition, long lastId, long rows, double rowsPerSecond) {
+}
@@ -0,0 +1,28 @@
+package com.practice.querydsl.export;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * @param rows          파일에 있는 전체 행 수 (이전 실행에서 쓴 행 포함)
+ * @param exportedRows  이번 실행에서 쓴 행 수
+ * @param rowsPerSecond 이번 실행 기준 처리량
+ */
+public record MemberExportResult(String directory, MemberExportFormat format, List<Partition> partitions,
+                                 long rows, long exportedRows, long elapsedMillis, double rowsPerSecond) {
+
+    static MemberExportResult of(Path directory, MemberExportFormat format, List<Partition> partitions, long elapsedMillis) {
+        long rows = partitions.stream().mapToLong(Partition::rows).sum();
+        long exportedRows = partitions.stream().mapToLong(Partition::exportedRows).sum();
+        double rowsPerSecond = exportedRows * 1000.0 / Math.max(elapsedMillis, 1);
+        return new MemberExportResult(directory.toAbsolutePath().toString(), format, List.copyOf(partitions),
+                rows, exportedRows, elapsedMillis, rowsPerSecond);
+    }
+
+    public record Partition(int partition, long fromId, long toId, long rows, long exportedRows, long elapsedMillis) {
+
+        Partition(int partition, IdRange range, long rows, long exportedRows, long elapsedMillis) {
+            this(partition, range.fromId(), range.toId(), rows, exportedRows, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.practice.querydsl.export;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * 회원 내보내기 설정. 컨트롤러(MemberExportController)나 테스트에서 만들어 MemberExporter 에 넘긴다.
+ */
+@Data
+public class MemberExportSpec {
+
+    /** 파티션별 파일(members-{n}.csv|bin)과 체크포인트(members-{n}.checkpoint)를 만드는 디렉터리 */
+    private Path directory;
+
+    private MemberExportFormat format = MemberExportFormat.CSV;
+
+    /** member_id 구간을 나눠서 동시에 내보내는 수. 파티션마다 스레드와 DB 커넥션을 하나씩 사용한다. */
+    private int partitions = 1;
+
+    /** true 면 체크포인트가 있는 파티션은 이어서 쓰고, 끝난 파티션은 건너뛴다. */
+    private boolean resume;
+
+    /** JDBC 드라이버가 한 번에 가져오는 행 수 */
+    private int fetchSize = 1_000;
+
+    /** 이 행 수마다 fsync 후 체크포인트를 기록한다. */
+    private int checkpointInterval = 100_000;
+
+    /** 파티션별 direct 버퍼 크기 */
+    private int bufferSize = 4 * 1024 * 1024;
+
+    /** 체크포인트마다 호출된다. (진행 상황 표시) 예외를 던지면 그 파티션은 실패한다. */
+    private Consumer<MemberExportProgress> progressListener = progress -> {
+    };
+}
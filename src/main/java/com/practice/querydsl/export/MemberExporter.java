@@ -0,0 +1,275 @@
+package com.practice.querydsl.export;
+
+import com.practice.querydsl.dto.MemberTeamDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 회원 + 팀 전체를 파일로 내보낸다. /v1/members 처럼 결과를 List 로 모으지 않는다.
+ * - StatelessSession + ScrollableResults(FORWARD_ONLY): 영속성 컨텍스트도 1차 캐시도 없이 fetchSize 만큼씩 읽는다.
+ * - 파티션: member_id 구간을 나눠서 스레드마다 다른 파일에 동시에 쓴다. (파티션마다 커넥션 하나)
+ * - 쓰기: 파티션별 큰 direct 버퍼에 모아서 FileChannel 로 쓴다. (ExportChannelWriter)
+ * - 체크포인트: checkpointInterval 행마다 fsync 하고 (마지막 id, 파일 위치) 를 기록한다.
+ *   실패 후 resume 으로 다시 실행하면 파일을 체크포인트 위치로 자르고 그 다음 id 부터 이어서 쓴다.
+ * 한 번에 하나의 내보내기만 실행한다. 설정 검사와 실행 중 표시는 exportAsync 를 호출한 스레드에서 바로 한다.
+ * 파티션 수는 커넥션 풀 크기(spring.datasource.hikari.maximum-pool-size)를 넘을 수 없다.
+ */
+@Slf4j
+@Component
+public class MemberExporter {
+
+    private static final String EXPORT_HQL = """
+            select new com.practice.querydsl.dto.MemberTeamDto(m.id, m.username, m.age, t.id, t.name)
+              from Member m left join m.team t
+             where m.id > :afterId and m.id <= :toId
+             order by m.id""";
+
+    private final SessionFactory sessionFactory;
+    private final int maxPartitions;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile State state = State.NOT_STARTED;
+    private volatile MemberExportResult lastResult;
+
+    public MemberExporter(EntityManagerFactory entityManagerFactory,
+                          @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPartitions) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.maxPartitions = maxPartitions;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public MemberExportResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * 설정이 잘못됐으면 IllegalArgumentException, 이미 실행 중이면 IllegalStateException 을 바로 던진다.
+     */
+    public CompletableFuture<MemberExportResult> exportAsync(MemberExportSpec spec) {
+        start(spec);
+        CompletableFuture<MemberExportResult> future = new CompletableFuture<>();
+        try {
+            Thread thread = new Thread(() -> {
+                try {
+                    future.complete(run(spec));
+                } catch (RuntimeException e) {
+                    log.error("member export failed", e);
+                    future.completeExceptionally(e);
+                }
+            }, "member-export");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (RuntimeException | Error e) {
+            state = State.FAILED;
+            running.set(false);
+            throw e;
+        }
+        return future;
+    }
+
+    public MemberExportResult export(MemberExportSpec spec) {
+        start(spec);
+        return run(spec);
+    }
+
+    private void start(MemberExportSpec spec) {
+        if (spec.getPartitions() < 1 || spec.getPartitions() > maxPartitions) {
+            throw new IllegalArgumentException("partitions 는 1 ~ " + maxPartitions + " 이어야 합니다: " + spec.getPartitions());
+        }
+        if (spec.getCheckpointInterval() < 1 || spec.getBufferSize() < 64 || spec.getFetchSize() < 1) {
+            throw new IllegalArgumentException("잘못된 내보내기 설정: " + spec);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("이미 내보내기가 실행 중입니다.");
+        }
+        state = State.RUNNING;
+    }
+
+    /**
+     * start 로 실행 중 표시를 얻은 뒤에 호출한다. 끝나면 표시를 푼다.
+     */
+    private MemberExportResult run(MemberExportSpec spec) {
+        try {
+            MemberExportResult result = exportPartitions(spec);
+            lastResult = result;
+            state = State.COMPLETED;
+            log.info("member export completed: {}", result);
+            return result;
+        } catch (RuntimeException e) {
+            state = State.FAILED;
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private MemberExportResult exportPartitions(MemberExportSpec spec) {
+        long start = System.nanoTime();
+        Path directory = spec.getDirectory();
+        List<ExportCheckpoint> checkpoints;
+        try {
+            Files.createDirectories(directory);
+            checkpoints = plan(spec, idRange());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(spec.getPartitions(), runnable -> {
+            Thread thread = new Thread(runnable, "member-export-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<MemberExportResult.Partition>> futures = checkpoints.stream()
+                    .map(checkpoint -> CompletableFuture.supplyAsync(() -> exportPartition(spec, checkpoint), pool))
+                    .toList();
+            // 한 파티션이 실패해도 나머지는 끝까지 (다음 체크포인트까지) 진행하게 둔다. resume 시 다시 할 일이 줄어든다.
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .exceptionally(e -> null)
+                    .join();
+
+            List<MemberExportResult.Partition> partitions = new ArrayList<>();
+            for (CompletableFuture<MemberExportResult.Partition> future : futures) {
+                try {
+                    partitions.add(future.join());
+                } catch (CompletionException e) {
+                    throw new IllegalStateException("회원 내보내기에 실패했습니다. resume 으로 이어서 실행할 수 있습니다.", e.getCause());
+                }
+            }
+            return MemberExportResult.of(directory, spec.getFormat(), partitions, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 파티션별 시작 체크포인트. resume 이면 저장된 체크포인트의 구간을 그대로 사용한다.
+     * (그 사이 회원이 추가되어 구간을 새로 나누면 이미 쓴 행과 겹칠 수 있으므로)
+     */
+    private List<ExportCheckpoint> plan(MemberExportSpec spec, IdRange current) throws IOException {
+        List<IdRange> ranges = current.split(spec.getPartitions());
+        List<ExportCheckpoint> checkpoints = new ArrayList<>();
+        for (int partition = 0; partition < spec.getPartitions(); partition++) {
+            Path path = checkpointPath(spec.getDirectory(), partition);
+            ExportCheckpoint checkpoint;
+            if (spec.isResume() && Files.exists(path)) {
+                checkpoint = ExportCheckpoint.load(path).verify(spec.getPartitions(), spec.getFormat());
+                if (partition == spec.getPartitions() - 1) {
+                    checkpoint = checkpoint.extendTo(current.toId());
+                }
+            } else {
+                checkpoint = ExportCheckpoint.start(partition, spec.getPartitions(), ranges.get(partition), spec.getFormat());
+                checkpoint.save(path);
+            }
+            checkpoints.add(checkpoint);
+        }
+        return checkpoints;
+    }
+
+    private MemberExportResult.Partition exportPartition(MemberExportSpec spec, ExportCheckpoint checkpoint) {
+        int partition = checkpoint.partition();
+        if (checkpoint.done()) {
+            return new MemberExportResult.Partition(partition, checkpoint.range(), checkpoint.rows(), 0, 0);
+        }
+
+        long start = System.nanoTime();
+        Path dataPath = spec.getDirectory().resolve("members-" + partition + "." + spec.getFormat().extension());
+        Path checkpointPath = checkpointPath(spec.getDirectory(), partition);
+        long resumedRows = checkpoint.rows();
+        long rows = resumedRows;
+
+        try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             ExportChannelWriter writer = new ExportChannelWriter(channel, spec.getBufferSize());
+             StatelessSession session = sessionFactory.openStatelessSession()) {
+
+            // 체크포인트 이후에 쓰였던 (fsync 되지 않았을 수 있는) 부분은 버린다.
+            channel.truncate(checkpoint.position());
+            channel.position(checkpoint.position());
+            if (checkpoint.position() == 0) {
+                spec.getFormat().writeHeader(writer);
+            }
+
+            Transaction tx = session.beginTransaction();
+            StringBuilder line = new StringBuilder(128);
+            long lastId = checkpoint.lastId();
+            try (ScrollableResults<MemberTeamDto> results = session.createQuery(EXPORT_HQL, MemberTeamDto.class)
+                    .setParameter("afterId", checkpoint.lastId())
+                    .setParameter("toId", checkpoint.toId())
+                    .setFetchSize(spec.getFetchSize())
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+
+                while (results.next()) {
+                    MemberTeamDto row = results.get();
+                    spec.getFormat().writeRow(writer, row, line);
+                    lastId = row.getMemberId();
+                    if (++rows % spec.getCheckpointInterval() == 0) {
+                        checkpoint = checkpoint.advance(lastId, writer.sync(), rows);
+                        checkpoint.save(checkpointPath);
+                        spec.getProgressListener().accept(new MemberExportProgress(
+                                partition, lastId, rows, rowsPerSecond(rows - resumedRows, start)));
+                    }
+                }
+            }
+            tx.commit();
+
+            long position = writer.sync();
+            checkpoint = checkpoint.advance(lastId, position, rows).complete(position, rows);
+            checkpoint.save(checkpointPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("member export partition {} done: range={}, rows={} (+{}), {} rows/s",
+                partition, checkpoint.range(), rows, rows - resumedRows, (long) rowsPerSecond(rows - resumedRows, start));
+        return new MemberExportResult.Partition(partition, checkpoint.range(), rows, rows - resumedRows, elapsedMillis);
+    }
+
+    private static Path checkpointPath(Path directory, int partition) {
+        return directory.resolve("members-" + partition + ".checkpoint");
+    }
+
+    private static double rowsPerSecond(long rows, long startNanos) {
+        return rows * 1_000_000_000.0 / Math.max(System.nanoTime() - startNanos, 1);
+    }
+
+    private IdRange idRange() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Object[] minMax = session.createQuery("select min(m.id), max(m.id) from Member m", Object[].class)
+                    .getSingleResult();
+            if (minMax[0] == null) {
+                return new IdRange(1, 0);
+            }
+            return new IdRange((Long) minMax[0], (Long) minMax[1]);
+        }
+    }
+
+    public enum State {
+        NOT_STARTED, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,11 @@
+package com.practice.querydsl.importer;
+
+/**
+ * 업로드 형식. 둘 다 한 줄에 회원 한 명이며 줄 단위로 읽으므로 파일 크기와 관계없이 메모리 사용량이 일정하다.
+ * - CSV: 첫 줄은 헤더 (username,age,team_name 순서 무관, team_name 은 생략 가능). RFC 4180 따옴표 규칙, 필드 안 줄바꿈은 지원하지 않음
+ * - NDJSON: {"username": "...", "age": 10, "teamName": "..."}
+ * team_name/teamName 이 비어 있으면 팀 없는 회원이다.
+ */
+public enum MemberImportFormat {
+    CSV, NDJSON
+}
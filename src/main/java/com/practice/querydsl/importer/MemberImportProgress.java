@@ -0,0 +1,8 @@
+package com.practice.querydsl.importer;
+
+/**
+ * @param rows     지금까지 읽은 행 수 (헤더와 빈 줄 제외)
+ * @param imported 지금까지 커밋한 회원 수
+ */
+public record MemberImportProgress(int chunks, long rows, long imported, long rejected, double rowsPerSecond) {
+}
@@ -0,0 +1,192 @@
+package com.practice.querydsl.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 업로드 스트림을 한 줄씩 읽어서 MemberImportRecord 로 바꾼다. 형식이 잘못된 줄은 예외 대신 거부 레코드로 돌려준다.
+ * 빈 줄은 건너뛴다.
+ */
+abstract class MemberImportReader {
+
+    static final int MAX_USERNAME_LENGTH = 255;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedReader reader;
+    private long line;
+
+    MemberImportReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    static MemberImportReader of(MemberImportFormat format, InputStream in, ObjectMapper objectMapper) {
+        return format == MemberImportFormat.CSV ? new Csv(in) : new Ndjson(in, objectMapper);
+    }
+
+    /**
+     * 스트림 끝이면 null
+     */
+    MemberImportRecord next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (!text.isBlank()) {
+                return parse(line, text);
+            }
+        }
+        return null;
+    }
+
+    protected String readHeader() throws IOException {
+        String text = reader.readLine();
+        line++;
+        return text;
+    }
+
+    abstract MemberImportRecord parse(long line, String text);
+
+    static MemberImportRecord validate(long line, String username, Integer age, String teamName) {
+        if (username == null || username.isBlank()) {
+            return MemberImportRecord.rejected(line, "username 이 없습니다.");
+        }
+        if (username.length() > MAX_USERNAME_LENGTH) {
+            return MemberImportRecord.rejected(line, "username 이 너무 깁니다: " + username.length());
+        }
+        if (age == null || age < 0) {
+            return MemberImportRecord.rejected(line, "age 가 올바르지 않습니다: " + age);
+        }
+        return new MemberImportRecord(line, username, age, teamName == null || teamName.isBlank() ? null : teamName, null);
+    }
+
+    static final class Csv extends MemberImportReader {
+
+        private int usernameColumn = -1;
+        private int ageColumn = -1;
+        private int teamNameColumn = -1;
+
+        Csv(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        MemberImportRecord next() throws IOException {
+            if (usernameColumn < 0) {
+                String header = readHeader();
+                if (header == null) {
+                    return null;
+                }
+                List<String> columns = split(header.replace("﻿", "")); // BOM
+                for (int i = 0; columns != null && i < columns.size(); i++) {
+                    switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                        case "username" -> usernameColumn = i;
+                        case "age" -> ageColumn = i;
+                        case "team_name", "teamname" -> teamNameColumn = i;
+                        default -> {
+                        }
+                    }
+                }
+                if (usernameColumn < 0 || ageColumn < 0) {
+                    throw new IllegalArgumentException("CSV 헤더에 username, age 컬럼이 필요합니다: " + header);
+                }
+            }
+            return super.next();
+        }
+
+        @Override
+        MemberImportRecord parse(long line, String text) {
+            List<String> fields = split(text);
+            if (fields == null) {
+                return MemberImportRecord.rejected(line, "따옴표가 닫히지 않았습니다.");
+            }
+            if (fields.size() <= Math.max(usernameColumn, ageColumn)) {
+                return MemberImportRecord.rejected(line, "컬럼 수가 부족합니다: " + fields.size());
+            }
+            Integer age;
+            try {
+                age = Integer.valueOf(fields.get(ageColumn).trim());
+            } catch (NumberFormatException e) {
+                return MemberImportRecord.rejected(line, "age 가 숫자가 아닙니다: " + fields.get(ageColumn));
+            }
+            String teamName = teamNameColumn >= 0 && teamNameColumn < fields.size() ? fields.get(teamNameColumn) : null;
+            return validate(line, fields.get(usernameColumn), age, teamName);
+        }
+
+        /**
+         * RFC 4180 한 줄 분리. 따옴표가 닫히지 않으면 null
+         */
+        static List<String> split(String text) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c != '\r') {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    static final class Ndjson extends MemberImportReader {
+
+        private final ObjectMapper objectMapper;
+
+        Ndjson(InputStream in, ObjectMapper objectMapper) {
+            super(in);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        MemberImportRecord parse(long line, String text) {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return MemberImportRecord.rejected(line, "JSON 형식이 아닙니다: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return MemberImportRecord.rejected(line, "JSON 객체가 아닙니다.");
+            }
+            JsonNode age = node.get("age");
+            if (age != null && !age.canConvertToInt()) {
+                return MemberImportRecord.rejected(line, "age 가 정수가 아닙니다: " + age);
+            }
+            return validate(line, text(node, "username"), age == null || age.isNull() ? null : age.asInt(), text(node, "teamName"));
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+}
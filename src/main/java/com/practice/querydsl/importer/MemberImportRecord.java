@@ -0,0 +1,15 @@
+package com.practice.querydsl.importer;
+
+/**
+ * 파싱된 한 줄. error 가 있으면 거부된 행이고 나머지 필드는 비어 있다.
+ */
+record MemberImportRecord(long line, String username, int age, String teamName, String error) {
+
+    static MemberImportRecord rejected(long line, String error) {
+        return new MemberImportRecord(line, null, 0, null, error);
+    }
+
+    boolean isRejected() {
+        return error != null;
+    }
+}
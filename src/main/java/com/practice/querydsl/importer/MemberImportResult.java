@@ -0,0 +1,16 @@
+package com.practice.querydsl.importer;
+
+import java.util.List;
+
+/**
+ * @param rejectedRows 거부된 행 (최대 MemberImportSpec.maxRejectedRows 개, 줄 번호 순)
+ */
+public record MemberImportResult(MemberImportFormat format, long rows, long imported, long rejected, int teamsCreated,
+                                 int chunks, long elapsedMillis, double rowsPerSecond, List<RejectedRow> rejectedRows) {
+
+    /**
+     * @param line 업로드 파일의 줄 번호 (1 부터, CSV 는 헤더가 1)
+     */
+    public record RejectedRow(long line, String reason) {
+    }
+}
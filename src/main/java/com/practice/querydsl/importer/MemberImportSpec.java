@@ -0,0 +1,33 @@
+package com.practice.querydsl.importer;
+
+import lombok.Data;
+
+import java.util.function.Consumer;
+
+/**
+ * 회원 가져오기 설정. 컨트롤러(MemberImportController)나 테스트에서 만들어 MemberImporter 에 넘긴다.
+ */
+@Data
+public class MemberImportSpec {
+
+    private MemberImportFormat format = MemberImportFormat.CSV;
+
+    /** insert 한 문장에 넣는 행 수. values (...), (...) 로 묶어서 문장 수와 왕복 횟수를 줄인다. */
+    private int rowsPerStatement = 100;
+
+    /** 이 행 수마다 executeBatch + commit 한다. rowsPerStatement 의 배수로 맞춰서 사용한다. */
+    private int chunkSize = 10_000;
+
+    /** true 면 없는 팀 이름은 팀을 새로 만들고, false 면 그 행을 거부한다. */
+    private boolean createMissingTeams;
+
+    /** 결과에 담는 거부 행 수. 넘으면 건수만 센다. */
+    private int maxRejectedRows = 100;
+
+    /** 거부 행이 이보다 많으면 중단한다. (이미 커밋한 청크는 남는다) 음수면 제한 없음 */
+    private long rejectLimit = -1;
+
+    /** 청크를 커밋할 때마다 호출된다. (진행 상황 표시) */
+    private Consumer<MemberImportProgress> progressListener = progress -> {
+    };
+}
@@ -0,0 +1,358 @@
+package com.practice.querydsl.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.querydsl.cache.MemberSearchCache;
+import com.practice.querydsl.entity.Team;
+import com.practice.querydsl.repository.MemberCountCache;
+import com.practice.querydsl.seed.PooledSequenceIdAllocator;
+import com.practice.querydsl.stats.TeamStatisticsMaintainer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CSV/NDJSON 업로드를 읽으면서 바로 회원으로 저장한다. 업로드 전체를 메모리에 올리지 않는다.
+ * - 팀 이름 -> id 는 시작할 때 한 번만 읽고, 없는 팀은 (createMissingTeams 면) 만들어서 맵에 추가한다. 행마다 팀을 조회하지 않는다.
+ * - 영속성 컨텍스트 없이 JDBC 로 저장한다. id 는 PooledSequenceIdAllocator 로 발급하고,
+ *   insert 한 문장에 rowsPerStatement 행을 묶은 뒤 (multi-row values) 그 문장들을 addBatch 로 모은다.
+ * - chunkSize 행마다 executeBatch + commit 하고 진행 상황을 알린다. 실패하면 이미 커밋한 청크는 남는다.
+ * - 형식이 잘못된 행은 예외 대신 줄 번호와 사유를 기록하고 건너뛴다.
+ * - 호출자 트랜잭션(예: @Transactional 테스트) 안에서 호출하면 그 커넥션에 참여하고 커밋은 호출자에게 맡긴다.
+ * 엔티티 이벤트가 없으므로 팀 통계, 카운트/검색 캐시, 팀 회원 컬렉션 캐시는 청크마다 직접 맞춘다.
+ * (호출자 트랜잭션이면 캐시는 호출자가 커밋한 뒤에 비운다)
+ */
+@Slf4j
+@Component
+public class MemberImporter {
+
+    private static final String INSERT_MEMBER_SQL = "insert into member (member_id, username, age, team_id) values ";
+    private static final String INSERT_MEMBER_VALUES = "(?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final SessionFactory sessionFactory;
+    private final MemberCountCache countCache;
+    private final MemberSearchCache searchCache;
+    private final TeamStatisticsMaintainer teamStatistics;
+
+    public MemberImporter(DataSource dataSource,
+                          ObjectMapper objectMapper,
+                          EntityManagerFactory entityManagerFactory,
+                          MemberCountCache countCache,
+                          MemberSearchCache searchCache,
+                          TeamStatisticsMaintainer teamStatistics) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.countCache = countCache;
+        this.searchCache = searchCache;
+        this.teamStatistics = teamStatistics;
+    }
+
+    public MemberImportResult importMembers(InputStream in, MemberImportSpec spec) {
+        if (spec.getRowsPerStatement() < 1 || spec.getChunkSize() < spec.getRowsPerStatement() || spec.getMaxRejectedRows() < 0) {
+            throw new IllegalArgumentException("잘못된 가져오기 설정: " + spec);
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        boolean transactional = DataSourceUtils.isConnectionTransactional(connection, dataSource);
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            if (!transactional) {
+                connection.setAutoCommit(false);
+            }
+            try (Run run = new Run(connection, transactional, spec)) {
+                MemberImportResult result = run.execute(MemberImportReader.of(spec.getFormat(), in, objectMapper));
+                log.info("member import completed: rows={}, imported={}, rejected={}, teamsCreated={}, {}ms",
+                        result.rows(), result.imported(), result.rejected(), result.teamsCreated(), result.elapsedMillis());
+                return result;
+            } catch (SQLException | IOException | RuntimeException e) {
+                if (!transactional) {
+                    connection.rollback(); // 커밋하지 않은 마지막 청크만 되돌린다.
+                }
+                throw e;
+            } finally {
+                if (!transactional) {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("회원 가져오기에 실패했습니다.", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("업로드를 읽지 못했습니다.", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * 가져오기 한 번의 상태. 청크 버퍼는 행마다 객체를 만들지 않도록 컬럼별 배열로 둔다.
+     */
+    private class Run implements AutoCloseable {
+
+        private final Connection connection;
+        private final boolean transactional;
+        private final MemberImportSpec spec;
+        private final PooledSequenceIdAllocator memberIds;
+        private final PooledSequenceIdAllocator teamIds;
+        private final Map<String, Long> teams;
+        private final PreparedStatement insertMembers;
+        private final long start = System.nanoTime();
+
+        private final long[] ids;
+        private final String[] usernames;
+        private final int[] ages;
+        private final long[] teamIdOf;
+        private int buffered;
+        private int pending;
+        private final Set<Long> touchedTeams = new HashSet<>();
+        private boolean teamsCreatedInChunk;
+        private final Set<Long> deferredTeams = new HashSet<>();
+        private boolean deferredNewTeams;
+        private boolean deferred;
+
+        private final List<MemberImportResult.RejectedRow> rejectedRows = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long rejected;
+        private int teamsCreated;
+        private int chunks;
+
+        Run(Connection connection, boolean transactional, MemberImportSpec spec) throws SQLException {
+            this.connection = connection;
+            this.transactional = transactional;
+            this.spec = spec;
+            this.memberIds = new PooledSequenceIdAllocator(connection, "member_seq");
+            this.teamIds = new PooledSequenceIdAllocator(connection, "team_seq");
+            this.teams = loadTeams();
+            int size = spec.getRowsPerStatement();
+            this.insertMembers = connection.prepareStatement(insertMemberSql(size));
+            this.ids = new long[size];
+            this.usernames = new String[size];
+            this.ages = new int[size];
+            this.teamIdOf = new long[size];
+        }
+
+        MemberImportResult execute(MemberImportReader reader) throws IOException, SQLException {
+            MemberImportRecord record;
+            while ((record = reader.next()) != null) {
+                rows++;
+                if (record.isRejected()) {
+                    reject(record.line(), record.error());
+                    continue;
+                }
+                Long teamId = resolveTeam(record.teamName());
+                if (teamId == null && record.teamName() != null) {
+                    reject(record.line(), "없는 팀입니다: " + record.teamName());
+                    continue;
+                }
+                add(record, teamId);
+            }
+            flushChunk();
+
+            long elapsedMillis = elapsedMillis();
+            return new MemberImportResult(spec.getFormat(), rows, imported, rejected, teamsCreated, chunks,
+                    elapsedMillis, imported * 1000.0 / Math.max(elapsedMillis, 1), List.copyOf(rejectedRows));
+        }
+
+        private void add(MemberImportRecord record, Long teamId) throws SQLException {
+            ids[buffered] = memberIds.nextId();
+            usernames[buffered] = record.username();
+            ages[buffered] = record.age();
+            teamIdOf[buffered] = teamId == null ? -1 : teamId;
+            if (teamId != null) {
+                touchedTeams.add(teamId);
+            }
+            buffered++;
+            pending++;
+
+            if (buffered == ids.length) {
+                bind(insertMembers, buffered);
+                insertMembers.addBatch();
+                buffered = 0;
+            }
+            if (pending >= spec.getChunkSize()) {
+                flushChunk();
+            }
+        }
+
+        /**
+         * 모아 둔 문장을 실행하고 커밋한다. rowsPerStatement 에 못 미치는 나머지 행은 그 크기의 문장을 따로 만들어 실행한다.
+         */
+        private void flushChunk() throws SQLException {
+            if (pending == 0) {
+                return;
+            }
+            insertMembers.executeBatch();
+            if (buffered > 0) {
+                try (PreparedStatement tail = connection.prepareStatement(insertMemberSql(buffered))) {
+                    bind(tail, buffered);
+                    tail.executeUpdate();
+                }
+                buffered = 0;
+            }
+            teamStatistics.recompute(connection, touchedTeams);
+            if (!transactional) {
+                connection.commit();
+            }
+            invalidateCaches();
+
+            imported += pending;
+            pending = 0;
+            touchedTeams.clear();
+            chunks++;
+
+            long elapsedMillis = elapsedMillis();
+            MemberImportProgress progress = new MemberImportProgress(chunks, rows, imported, rejected,
+                    imported * 1000.0 / Math.max(elapsedMillis, 1));
+            log.debug("member import progress: {}", progress);
+            spec.getProgressListener().accept(progress);
+        }
+
+        private void bind(PreparedStatement statement, int count) throws SQLException {
+            int index = 1;
+            for (int i = 0; i < count; i++) {
+                statement.setLong(index++, ids[i]);
+                statement.setString(index++, usernames[i]);
+                statement.setInt(index++, ages[i]);
+                if (teamIdOf[i] < 0) {
+                    statement.setNull(index++, Types.BIGINT);
+                } else {
+                    statement.setLong(index++, teamIdOf[i]);
+                }
+                usernames[i] = null;
+            }
+        }
+
+        /**
+         * 청크를 직접 커밋했으면 바로 비운다. 호출자 트랜잭션이면 커밋 전에 다른 요청이 이전 결과를 다시 캐시할 수 있으므로
+         * 여러 청크의 대상을 모아 두었다가 커밋 후에 한 번 비운다.
+         */
+        private void invalidateCaches() {
+            boolean newTeams = teamsCreatedInChunk;
+            teamsCreatedInChunk = false;
+            if (!transactional || !TransactionSynchronizationManager.isSynchronizationActive()) {
+                invalidate(touchedTeams, newTeams);
+                return;
+            }
+            deferredTeams.addAll(touchedTeams);
+            deferredNewTeams |= newTeams;
+            if (!deferred) {
+                deferred = true;
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        invalidate(deferredTeams, deferredNewTeams);
+                    }
+                });
+            }
+        }
+
+        private Long resolveTeam(String teamName) throws SQLException {
+            if (teamName == null) {
+                return null;
+            }
+            Long teamId = teams.get(teamName);
+            if (teamId != null || !spec.isCreateMissingTeams()) {
+                return teamId;
+            }
+            teamId = teamIds.nextId();
+            try (PreparedStatement insert = connection.prepareStatement("insert into team (team_id, name) values (?, ?)")) {
+                insert.setLong(1, teamId);
+                insert.setString(2, teamName);
+                insert.executeUpdate();
+            }
+            teamStatistics.created(connection, List.of(teamId));
+            teams.put(teamName, teamId);
+            teamsCreated++;
+            teamsCreatedInChunk = true;
+            return teamId;
+        }
+
+        private void reject(long line, String reason) {
+            rejected++;
+            if (rejectedRows.size() < spec.getMaxRejectedRows()) {
+                rejectedRows.add(new MemberImportResult.RejectedRow(line, reason));
+            }
+            if (spec.getRejectLimit() >= 0 && rejected > spec.getRejectLimit()) {
+                throw new IllegalArgumentException("거부된 행이 " + spec.getRejectLimit() + " 개를 넘어서 중단했습니다. (" + line
+                        + " 번째 줄, 커밋된 회원 " + imported + " 명) 마지막 사유: " + reason);
+            }
+        }
+
+        /**
+         * 같은 이름의 팀이 여러 개면 id 가 가장 작은 팀을 사용한다.
+         */
+        private Map<String, Long> loadTeams() throws SQLException {
+            Map<String, Long> teams = new HashMap<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("select team_id, name from team order by team_id")) {
+                while (resultSet.next()) {
+                    teams.putIfAbsent(resultSet.getString(2), resultSet.getLong(1));
+                }
+            }
+            return teams;
+        }
+
+        private long elapsedMillis() {
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            insertMembers.close();
+        }
+    }
+
+    /**
+     * JDBC 로 넣은 회원은 2차 캐시의 Team.members 컬렉션에 반영되지 않으므로 해당 팀만 비운다.
+     * JDBC 로 만든 팀은 쿼리 캐시의 갱신 시각도 바꾸지 않아서 TeamRepository.findByName 이 캐시된 빈 결과를 계속 돌려주므로
+     * 팀을 만들었으면 쿼리 캐시도 비운다.
+     */
+    private void invalidate(Collection<Long> teamIds, boolean newTeams) {
+        countCache.invalidateAll();
+        searchCache.invalidateAll();
+        Cache cache = sessionFactory.getCache();
+        for (Long teamId : teamIds) {
+            cache.evictCollectionData(Team.class.getName() + ".members", teamId);
+        }
+        if (newTeams) {
+            cache.evictQueryRegions();
+        }
+    }
+
+    private static String insertMemberSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_MEMBER_SQL.length() + rows * (INSERT_MEMBER_VALUES.length() + 2));
+        sql.append(INSERT_MEMBER_SQL);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_MEMBER_VALUES);
+        }
+        return sql.toString();
+    }
+}
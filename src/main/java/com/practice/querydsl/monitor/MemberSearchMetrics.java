@@ -0,0 +1,139 @@
+package com.practice.querydsl.monitor;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.repository.MemberSearchShape;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 회원 검색 API 메트릭. (/actuator/prometheus 로 노출)
+ * - member.search.latency{endpoint, shape}: 엔드포인트 + 검색 조건 모양별 응답 시간
+ * - member.search.rows{endpoint}: 반환한 행 수 분포
+ * - member.search.scan.ratio{endpoint}: 읽은 행 수 / 반환한 행 수
+ *   offset 페이징은 offset 만큼 읽고 버리므로 깊은 페이지일수록 커진다. (키셋 페이징은 (size + 1) / size)
+ * - member.search.count{result}: 카운트 쿼리 executed(DB 실행) / cached(카운트 캐시) / skipped(PageableExecutionUtils 가 생략)
+ *   한 페이지 조회는 셋 중 하나로만 기록한다. 동시 모드에서 미리 실행한 카운트는 결과가 쓰일 때만 기록한다. (deferCount)
+ */
+@Component
+public class MemberSearchMetrics {
+
+    private static final ThreadLocal<DeferredCount> DEFERRED = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+    private final Counter countExecuted;
+    private final Counter countCached;
+    private final Counter countSkipped;
+
+    public MemberSearchMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.countExecuted = countCounter("executed");
+        this.countCached = countCounter("cached");
+        this.countSkipped = countCounter("skipped");
+    }
+
+    private Counter countCounter(String result) {
+        return Counter.builder("member.search.count")
+                .description("count queries by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * @param rowsReturned 결과에서 반환한 행 수
+     * @param rowsScanned  결과를 만들기 위해 DB 가 읽은 행 수 (추정)
+     */
+    public <T> T record(String endpoint, MemberSearchCondition condition, Supplier<T> search,
+                        ToLongFunction<T> rowsReturned, ToLongFunction<T> rowsScanned) {
+        Timer.Sample sample = Timer.start(registry);
+        T result = search.get();
+        sample.stop(Timer.builder("member.search.latency")
+                .description("member search latency")
+                .tag("endpoint", endpoint)
+                .tag("shape", MemberSearchShape.of(condition).tag())
+                .publishPercentileHistogram()
+                .register(registry));
+
+        long returned = rowsReturned.applyAsLong(result);
+        DistributionSummary.builder("member.search.rows")
+                .description("rows returned per search")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(returned);
+        DistributionSummary.builder("member.search.scan.ratio")
+                .description("rows scanned / rows returned")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record((double) rowsScanned.applyAsLong(result) / Math.max(returned, 1));
+        return result;
+    }
+
+    public void countExecuted() {
+        record(CountOutcome.EXECUTED);
+    }
+
+    public void countCached() {
+        record(CountOutcome.CACHED);
+    }
+
+    /**
+     * 닫을 때까지 현재 스레드의 countExecuted/countCached 를 바로 기록하지 않고 모아둔다.
+     * 결과가 쓰이면 DeferredCount.commit() 으로 기록하고, 버려지면 그냥 닫는다. (skipped 와 이중 기록 방지)
+     */
+    public DeferredCount deferCount() {
+        DeferredCount deferred = new DeferredCount(this);
+        DEFERRED.set(deferred);
+        return deferred;
+    }
+
+    private void record(CountOutcome outcome) {
+        DeferredCount deferred = DEFERRED.get();
+        if (deferred != null) {
+            deferred.outcome = outcome;
+            return;
+        }
+        (outcome == CountOutcome.EXECUTED ? countExecuted : countCached).increment();
+    }
+
+    public void countSkipped() {
+        countSkipped.increment();
+    }
+
+    private enum CountOutcome {
+        EXECUTED, CACHED
+    }
+
+    public static final class DeferredCount implements AutoCloseable {
+
+        private final MemberSearchMetrics metrics;
+        private volatile CountOutcome outcome;
+
+        private DeferredCount(MemberSearchMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        /**
+         * 다른 스레드에서 호출해도 된다. 한 번만 기록한다.
+         */
+        public void commit() {
+            CountOutcome recorded = outcome;
+            outcome = null;
+            if (recorded != null) {
+                (recorded == CountOutcome.EXECUTED ? metrics.countExecuted : metrics.countCached).increment();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (DEFERRED.get() == this) {
+                DEFERRED.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.practice.querydsl.monitor;
+
+import com.practice.querydsl.dto.CacheRegionStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 2차 캐시 리전별 통계.
+ * 히트/미스/저장 수는 Hibernate Statistics(hibernate.generate_statistics), 제거(eviction) 수는
+ * Caffeine JCache 가 JMX 에 등록하는 CacheStatistics MXBean 에서 읽는다. (application.conf 의 monitoring.statistics)
+ */
+@Component
+public class SecondLevelCacheStatistics {
+
+    private final Statistics statistics;
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public List<CacheRegionStatsDto> regions() {
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+
+        List<CacheRegionStatsDto> result = new ArrayList<>();
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            result.add(new CacheRegionStatsDto(
+                    regionName,
+                    region.getHitCount(),
+                    region.getMissCount(),
+                    region.getPutCount(),
+                    region.getElementCountInMemory(),
+                    evictionCount(regionName)));
+        }
+        return result;
+    }
+
+    private long evictionCount(String regionName) {
+        try {
+            Set<ObjectName> names = mBeanServer.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + regionName + ",*"), null);
+            long evictions = 0;
+            for (ObjectName name : names) {
+                evictions += ((Number) mBeanServer.getAttribute(name, "CacheEvictions")).longValue();
+            }
+            return names.isEmpty() ? -1 : evictions;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.practice.querydsl.monitor;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 샘플링 SQL 추적. (member.sql-trace.enabled=true 일 때만 DataSource 를 감싼다)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "member.sql-trace", name = "enabled", havingValue = "true")
+public class SqlTraceConfig {
+
+    @Bean
+    public SqlTraceRing sqlTraceRing(@Value("${member.sql-trace.ring-size:8192}") int ringSize) {
+        return new SqlTraceRing(ringSize);
+    }
+
+    @Bean
+    public SqlTracer sqlTracer(SqlTraceRing ring,
+                               @Value("${member.sql-trace.sample-rate:0.01}") double sampleRate,
+                               @Value("${member.sql-trace.slow-threshold:200ms}") Duration slowThreshold,
+                               @Value("${member.sql-trace.capture-binds:false}") boolean captureBinds) {
+        return new SqlTracer(sampleRate, slowThreshold, captureBinds, ring);
+    }
+
+    @Bean
+    public SqlTraceDrainer sqlTraceDrainer(SqlTraceRing ring,
+                                           @Value("${member.sql-trace.drain-interval:200ms}") Duration interval) {
+        return new SqlTraceDrainer(ring, interval);
+    }
+
+    /**
+     * BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 선언하고 SqlTracer 는 필요할 때 꺼낸다.
+     */
+    @Bean
+    public static BeanPostProcessor sqlTraceDataSourcePostProcessor(ObjectProvider<SqlTracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource) {
+                    return SqlTraceDataSource.wrap(dataSource, tracer.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.practice.querydsl.monitor;
+
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DataSource → Connection → Statement 를 JDK 동적 프록시로 감싸 실행 시간을 재고 SqlTracer 에 넘긴다.
+ * 실행(execute*)마다 하는 일은 nanoTime 두 번과 샘플링 난수 하나뿐이고, 바인드 값은 capture-binds 일 때만 모은다.
+ */
+public final class SqlTraceDataSource {
+
+    private SqlTraceDataSource() {
+    }
+
+    /**
+     * 원본이 구현한 인터페이스(Closeable, HikariConfigMXBean 등)를 그대로 유지한다.
+     */
+    public static DataSource wrap(DataSource dataSource, SqlTracer tracer) {
+        Class<?>[] interfaces = ClassUtils.getAllInterfaces(dataSource);
+        return (DataSource) Proxy.newProxyInstance(SqlTraceDataSource.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                        return proxy(Connection.class, new ConnectionHandler(connection, tracer));
+                    }
+                    return result;
+                });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlTraceDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private record ConnectionHandler(Connection target, SqlTracer tracer) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlTraceDataSource.invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, new StatementHandler(statement, sql, tracer));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, new StatementHandler(statement, sql, tracer));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, new StatementHandler(statement, null, tracer));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final SqlTracer tracer;
+        private Object[] binds;
+        private int batchSize;
+
+        StatementHandler(Statement target, String preparedSql, SqlTracer tracer) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.tracer = tracer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (tracer.captureBinds()) {
+                captureBind(name, args);
+            }
+            if (name.equals("addBatch")) {
+                batchSize++;
+            }
+            return SqlTraceDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            boolean batch = method.getName().endsWith("Batch");
+            boolean sampled = tracer.sample();
+            long start = System.nanoTime();
+            try {
+                return SqlTraceDataSource.invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                tracer.onExecuted(sql, binds == null ? null : binds.clone(), elapsed, batch ? batchSize : 0, sampled);
+                if (batch) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        /**
+         * setXxx(parameterIndex, value, ...) 의 값을 모은다. 배치는 마지막 행의 값만 남는다.
+         */
+        private void captureBind(String name, Object[] args) {
+            if (name.equals("clearParameters")) {
+                binds = null;
+                return;
+            }
+            if (!name.startsWith("set") || args == null || args.length < 2 || !(args[0] instanceof Integer index)) {
+                return;
+            }
+            if (binds == null || binds.length < index) {
+                binds = binds == null ? new Object[Math.max(index, 4)] : Arrays.copyOf(binds, Math.max(index, binds.length * 2));
+            }
+            binds[index - 1] = args[1];
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.practice.querydsl.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 링 버퍼를 주기적으로 비워 로그(sql.trace)로 내보내는 단일 데몬 스레드.
+ * 쿼리 실행 스레드는 로그 포맷팅/출력 비용을 전혀 부담하지 않는다.
+ */
+@Slf4j
+public class SqlTraceDrainer implements DisposableBean {
+
+    private static final Logger traceLog = LoggerFactory.getLogger("sql.trace");
+
+    private final SqlTraceRing ring;
+    private final Consumer<SqlTraceRecord> sink;
+    private final ScheduledExecutorService scheduler;
+    private long reportedDropped;
+
+    public SqlTraceDrainer(SqlTraceRing ring, Duration interval) {
+        this(ring, interval, SqlTraceDrainer::log);
+    }
+
+    public SqlTraceDrainer(SqlTraceRing ring, Duration interval, Consumer<SqlTraceRecord> sink) {
+        this.ring = ring;
+        this.sink = sink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sql-trace-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = Math.max(1, interval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::drain, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    void drain() {
+        try {
+            ring.drain(sink);
+            long dropped = ring.dropped();
+            if (dropped > reportedDropped) {
+                log.warn("SQL 추적 링 버퍼가 가득 차 {}건을 버렸습니다. (capacity={})", dropped - reportedDropped, ring.capacity());
+                reportedDropped = dropped;
+            }
+        } catch (RuntimeException e) {
+            log.warn("SQL 추적 기록 출력 실패", e); // 스케줄이 멈추지 않도록 삼킨다.
+        }
+    }
+
+    private static void log(SqlTraceRecord record) {
+        double millis = record.elapsedNanos() / 1_000_000.0;
+        String batch = record.batchSize() > 0 ? " batch=" + record.batchSize() : "";
+        String binds = record.binds() == null ? "" : " binds=" + Arrays.toString(record.binds());
+        if (record.slow()) {
+            traceLog.warn("[slow] {}ms{} [{}] {}{}", String.format("%.3f", millis), batch, record.thread(), record.sql(), binds);
+        } else {
+            traceLog.info("{}ms{} [{}] {}{}", String.format("%.3f", millis), batch, record.thread(), record.sql(), binds);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        drain(); // 남은 기록 출력
+    }
+}
@@ -0,0 +1,22 @@
+package com.practice.querydsl.monitor;
+
+/**
+ * 링 버퍼에 쌓이는 SQL 실행 기록. 문자열 포맷팅은 기록하는 스레드가 아니라 드레인 스레드에서 한다.
+ *
+ * @param sequence     링 버퍼 순번 (SqlTraceRing 이 채운다)
+ * @param binds        바인드 값 (member.sql-trace.capture-binds=false 면 null)
+ * @param batchSize    executeBatch 로 실행한 건수. 단건 실행은 0
+ */
+public record SqlTraceRecord(long sequence,
+                             String sql,
+                             Object[] binds,
+                             long elapsedNanos,
+                             int batchSize,
+                             boolean slow,
+                             String thread,
+                             long timestamp) {
+
+    SqlTraceRecord withSequence(long sequence) {
+        return new SqlTraceRecord(sequence, sql, binds, elapsedNanos, batchSize, slow, thread, timestamp);
+    }
+}
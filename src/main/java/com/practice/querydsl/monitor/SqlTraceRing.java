@@ -0,0 +1,72 @@
+package com.practice.querydsl.monitor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 락 없는 다중 생산자 / 단일 소비자 링 버퍼.
+ * - 생산자(쿼리 실행 스레드)는 순번을 getAndIncrement 로 받아 슬롯에 쓰기만 한다. 절대 기다리지 않는다.
+ * - 소비자(드레인 스레드)가 따라오지 못하면 오래된 기록을 덮어쓰고, 덮어쓴 건수는 dropped 로 센다.
+ * 슬롯의 기록에 순번을 함께 저장해 두고, 소비자는 기대한 순번과 비교해서 아직 쓰이지 않은 슬롯과 덮어쓴 슬롯을 구분한다.
+ */
+public class SqlTraceRing {
+
+    private final AtomicReferenceArray<SqlTraceRecord> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // 다음에 쓸 순번
+    private final AtomicLong dropped = new AtomicLong();
+    private long tail; // 다음에 읽을 순번 (소비자 스레드 전용)
+
+    /**
+     * @param capacity 2의 거듭제곱으로 올림한다.
+     */
+    public SqlTraceRing(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void offer(SqlTraceRecord record) {
+        long sequence = head.getAndIncrement();
+        slots.set((int) (sequence & mask), record.withSequence(sequence));
+    }
+
+    /**
+     * 단일 소비자 스레드에서만 호출한다.
+     *
+     * @return 소비한 기록 수
+     */
+    public int drain(Consumer<SqlTraceRecord> consumer) {
+        long end = head.get();
+        long capacity = mask + 1L;
+        if (end - tail > capacity) {
+            dropped.addAndGet(end - tail - capacity);
+            tail = end - capacity;
+        }
+
+        int drained = 0;
+        while (tail < end) {
+            SqlTraceRecord record = slots.get((int) (tail & mask));
+            if (record == null || record.sequence() < tail) {
+                break; // 순번은 받았지만 아직 쓰지 않은 슬롯. 다음 드레인에서 다시 읽는다.
+            }
+            if (record.sequence() > tail) {
+                dropped.incrementAndGet(); // 읽기 전에 덮어쓰였다.
+            } else {
+                consumer.accept(record);
+                drained++;
+            }
+            tail++;
+        }
+        return drained;
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,42 @@
+package com.practice.querydsl.monitor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SQL 실행 기록 여부를 결정한다.
+ * - 샘플링: 실행마다 sampleRate 확률로 기록한다. (0 이면 샘플링하지 않음, 1 이면 전부)
+ * - 느린 쿼리: 샘플링과 상관없이 slowThreshold 이상 걸린 실행은 항상 기록한다.
+ * 기록은 링 버퍼에 넣기만 하고, 로그 출력은 SqlTraceDrainer 가 별도 스레드에서 한다.
+ */
+public class SqlTracer {
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final boolean captureBinds;
+    private final SqlTraceRing ring;
+
+    public SqlTracer(double sampleRate, Duration slowThreshold, boolean captureBinds, SqlTraceRing ring) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.captureBinds = captureBinds;
+        this.ring = ring;
+    }
+
+    public boolean captureBinds() {
+        return captureBinds;
+    }
+
+    boolean sample() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    void onExecuted(String sql, Object[] binds, long elapsedNanos, int batchSize, boolean sampled) {
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        if (!sampled && !slow) {
+            return;
+        }
+        ring.offer(new SqlTraceRecord(0, sql, binds, elapsedNanos, batchSize, slow,
+                Thread.currentThread().getName(), System.currentTimeMillis()));
+    }
+}
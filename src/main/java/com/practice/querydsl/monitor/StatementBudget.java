@@ -0,0 +1,41 @@
+package com.practice.querydsl.monitor;
+
+import java.util.function.Supplier;
+
+/**
+ * 코드 블록이 실행하는 SQL 문 수의 상한을 검사한다. 테스트에서 N+1 회귀를 잡는 용도로 사용한다.
+ * <pre>
+ * List&lt;Member&gt; members = StatementBudget.expectAtMost(1, () -&gt; memberRepository.findAll());
+ * </pre>
+ * 예산을 넘으면 실행한 SQL 과 예산을 처음 넘긴 호출 위치를 담아 IllegalStateException 을 던진다.
+ */
+public final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    public static <T> T expectAtMost(int maxStatements, Supplier<T> work) {
+        try (StatementRecorder.Recording recording = StatementRecorder.start(maxStatements)) {
+            T result = work.get();
+            verify(recording);
+            return result;
+        }
+    }
+
+    public static void runAtMost(int maxStatements, Runnable work) {
+        expectAtMost(maxStatements, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private static void verify(StatementRecorder.Recording recording) {
+        if (!recording.exceeded()) {
+            return;
+        }
+        throw new IllegalStateException(String.format(
+                "SQL 문 예산 초과: 최대 %d, 실행 %d%n호출 위치: %s%n%s",
+                recording.budget(), recording.count(), recording.callSite(),
+                String.join(System.lineSeparator(), recording.statements())));
+    }
+}
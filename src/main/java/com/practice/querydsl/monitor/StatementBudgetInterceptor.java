@@ -0,0 +1,66 @@
+package com.practice.querydsl.monitor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 운영 환경에서 요청 일부(member.statement-budget.sample-rate)를 골라 SQL 문 수를 세고,
+ * 예산(member.statement-budget.max-statements)을 넘은 요청을 호출 위치와 함께 경고 로그로 남긴다.
+ * open-in-view 로 뷰 렌더링(JSON 직렬화) 중에 일어나는 지연 로딩까지 포함된다.
+ */
+@Slf4j
+@Component
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String RECORDING = StatementBudgetInterceptor.class.getName() + ".RECORDING";
+
+    private final double sampleRate;
+    private final int maxStatements;
+
+    public StatementBudgetInterceptor(@Value("${member.statement-budget.sample-rate:0}") double sampleRate,
+                                      @Value("${member.statement-budget.max-statements:10}") int maxStatements) {
+        this.sampleRate = sampleRate;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            request.setAttribute(RECORDING, StatementRecorder.start(maxStatements));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 비동기 처리는 다른 스레드에서 이어지므로 여기서 기록을 닫는다. (스레드 로컬 정리)
+        if (request.getAttribute(RECORDING) instanceof StatementRecorder.Recording recording) {
+            recording.close();
+            request.removeAttribute(RECORDING);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(RECORDING) instanceof StatementRecorder.Recording recording)) {
+            return;
+        }
+        recording.close();
+        request.removeAttribute(RECORDING);
+
+        if (recording.exceeded()) {
+            log.warn("SQL 문 예산 초과 {} {} : {}건 (최대 {}), handler={}, 호출 위치={}",
+                    request.getMethod(), request.getRequestURI(), recording.count(), recording.budget(),
+                    handler, recording.callSite());
+            if (log.isDebugEnabled()) {
+                log.debug("실행한 SQL:\n{}", String.join("\n", recording.statements()));
+            }
+        }
+    }
+}
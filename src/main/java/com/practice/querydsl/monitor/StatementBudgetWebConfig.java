@@ -0,0 +1,18 @@
+package com.practice.querydsl.monitor;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class StatementBudgetWebConfig implements WebMvcConfigurer {
+
+    private final StatementBudgetInterceptor statementBudgetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementBudgetInterceptor);
+    }
+}
@@ -0,0 +1,129 @@
+package com.practice.querydsl.monitor;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate 가 실행하는 SQL 문을 현재 스레드 단위로 센다. (hibernate.session_factory.statement_inspector 로 등록)
+ * start() 로 기록을 시작한 스레드에서 실행된 SQL 만 센다. 기록은 중첩할 수 있고, 바깥 기록에도 함께 더해진다.
+ * 예산(budget)을 처음 넘는 SQL 이 실행되는 순간의 호출 위치를 남기므로, 지연 로딩(N+1)을 일으킨 코드를 찾을 수 있다.
+ * 주의: 별도 스레드에서 실행되는 SQL (동시 카운트 쿼리, StreamingResponseBody 등) 은 세지 않는다.
+ */
+@Component
+public class StatementRecorder implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+    private static final int MAX_CAPTURED_STATEMENTS = 50;
+    private static final int CALL_SITE_DEPTH = 5;
+    private static final String APP_PACKAGE = "com.practice.querydsl.";
+    // 기록 코드 자신의 프레임. 패키지 단위로 거르면 같은 패키지의 호출자(테스트 등)까지 빠진다.
+    private static final List<String> RECORDING_CLASSES = List.of(
+            StatementRecorder.class.getName(), StatementBudget.class.getName(), StatementBudgetInterceptor.class.getName());
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        for (Recording recording = CURRENT.get(); recording != null; recording = recording.parent) {
+            recording.record(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * @param budget 허용하는 최대 SQL 문 수
+     */
+    public static Recording start(int budget) {
+        Recording recording = new Recording(CURRENT.get(), budget);
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    /**
+     * 애플리케이션 코드 프레임만 남긴 호출 스택. (프록시, SQL 기록 코드 제외)
+     */
+    static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE))
+                .filter(frame -> !isRecordingClass(frame.getClassName()))
+                .filter(frame -> !frame.getClassName().contains("$$") && !frame.getClassName().contains("$HibernateProxy"))
+                .limit(CALL_SITE_DEPTH)
+                .map(StackWalker.StackFrame::toString)
+                .collect(Collectors.joining(" <- ")));
+    }
+
+    private static boolean isRecordingClass(String className) {
+        return RECORDING_CLASSES.stream()
+                .anyMatch(recordingClass -> className.equals(recordingClass) || className.startsWith(recordingClass + "$"));
+    }
+
+    public static final class Recording implements AutoCloseable {
+
+        private final Recording parent;
+        private final int budget;
+        private final List<String> statements = new ArrayList<>();
+        private int count;
+        private String callSite;
+
+        private Recording(Recording parent, int budget) {
+            this.parent = parent;
+            this.budget = budget;
+        }
+
+        private void record(String sql) {
+            count++;
+            if (statements.size() < MAX_CAPTURED_STATEMENTS) {
+                statements.add(sql);
+            }
+            if (count == budget + 1) {
+                callSite = StatementRecorder.callSite(); // callSite() 는 이 클래스의 getter 로 해석된다.
+            }
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public int budget() {
+            return budget;
+        }
+
+        public boolean exceeded() {
+            return count > budget;
+        }
+
+        /**
+         * 예산을 처음 넘긴 SQL 의 호출 위치. 넘기지 않았으면 null
+         */
+        public String callSite() {
+            return callSite;
+        }
+
+        public List<String> statements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() != this) {
+                return; // 이미 닫혔거나 다른 스레드
+            }
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
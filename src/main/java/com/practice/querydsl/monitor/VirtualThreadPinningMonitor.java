@@ -0,0 +1,92 @@
+package com.practice.querydsl.monitor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 가상 스레드 고정(pinning) 감지. JFR 의 jdk.VirtualThreadPinned 이벤트(JDK 21+)를 애플리케이션 안에서 스트리밍으로 받는다.
+ * synchronized 블록 안에서 JDBC I/O 를 기다리면 가상 스레드가 캐리어 스레드를 놓지 못해서 (H2, Hibernate 내부 등)
+ * 가상 스레드를 써도 동시성이 캐리어 수(= CPU 코어 수)로 묶인다.
+ * - 고정된 위치(스택의 첫 애플리케이션/라이브러리 프레임)별로 member.virtual-thread.pinned 카운터를 올린다.
+ * - 위치마다 처음 한 번은 스택 트레이스를 경고 로그로 남긴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry registry;
+    private final Duration threshold;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry,
+                                       @Value("${member.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.registry = registry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("가상 스레드는 Java 21 이상에서만 동작합니다. (현재 {}) -PjavaVersion=21 로 실행하세요.", Runtime.version());
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String site = pinnedSite(frames);
+        counters.computeIfAbsent(site, key -> {
+            log.warn("가상 스레드 고정 {}ms at {}\n{}", event.getDuration().toMillis(), key, frames.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                            + ":" + frame.getLineNumber())
+                    .collect(Collectors.joining("\n")));
+            return Counter.builder("member.virtual-thread.pinned")
+                    .description("virtual thread pinned longer than threshold")
+                    .tag("site", key)
+                    .register(registry);
+        }).increment();
+    }
+
+    /**
+     * JDK 내부 프레임(java., jdk., sun.)을 건너뛴 첫 프레임. 보통 synchronized 를 잡은 JDBC 드라이버/Hibernate 코드다.
+     */
+    static String pinnedSite(List<RecordedFrame> frames) {
+        return frames.stream()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .filter(name -> !name.startsWith("java.") && !name.startsWith("jdk.") && !name.startsWith("sun."))
+                .findFirst()
+                .orElse("unknown");
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
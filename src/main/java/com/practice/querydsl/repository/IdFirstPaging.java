@@ -0,0 +1,65 @@
+package com.practice.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 컬렉션 페치 조인 + 페이징을 두 단계로 나눠서 실행한다.
+ * 컬렉션(team.members)을 페치 조인한 쿼리에 offset/limit 을 걸면 루트 행이 컬렉션 크기만큼 늘어나 있어서
+ * Hibernate 가 SQL 에 limit 을 넣지 못하고 전체 결과를 메모리에 올린 뒤 자른다. (HHH90003004 경고)
+ * 1. idQuery: 루트 id 만 조회하는 쿼리에 실제 SQL offset/limit 을 건다. (조건, 정렬은 호출자가 붙인다)
+ * 2. loader: 그 id 들만 in (...) 으로 페치 조인해서 가져온다. (결과 수가 페이지 크기로 제한된다)
+ * 3. loader 결과는 순서가 보장되지 않으므로 idQuery 의 순서대로 다시 정렬한다.
+ * 주의
+ * - idQuery 는 루트 행이 중복되지 않아야 한다. 컬렉션 조건은 조인 대신 exists 서브쿼리로 건다.
+ * - countQuery 도 루트만 센다. (조인 없이) 카운트가 필요 없는 경우 PageableExecutionUtils 가 생략한다.
+ * <pre>
+ * IdFirstPaging.fetchPage(
+ *         queryFactory.select(team.id).from(team).where(조건).orderBy(team.name.asc(), team.id.asc()),
+ *         queryFactory.select(team.count()).from(team).where(조건),
+ *         pageable,
+ *         ids -&gt; queryFactory.selectFrom(team).join(team.members, member).fetchJoin().where(team.id.in(ids)).fetch(),
+ *         Team::getId);
+ * </pre>
+ */
+public final class IdFirstPaging {
+
+    private IdFirstPaging() {
+    }
+
+    public static <T> Page<T> fetchPage(JPAQuery<Long> idQuery, JPAQuery<Long> countQuery, Pageable pageable,
+                                        Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        List<Long> ids = idQuery
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+        List<T> content = ids.isEmpty() ? List.of() : inIdOrder(ids, loader.apply(ids), idOf);
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    /**
+     * 페치 조인 결과에 같은 루트가 여러 번 들어 있어도 (distinct 를 안 한 경우) 한 번만 담는다.
+     */
+    static <T> List<T> inIdOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>(rows.size() * 2);
+        for (T row : rows) {
+            byId.putIfAbsent(idOf.apply(row), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) { // 두 쿼리 사이에 삭제된 행
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+}
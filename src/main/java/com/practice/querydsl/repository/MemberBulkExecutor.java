@@ -0,0 +1,204 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.cache.MemberSearchCache;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.stats.TeamStatisticsMaintainer;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.practice.querydsl.entity.QMember.member;
+
+/**
+ * 청크 단위 벌크 수정/삭제.
+ * update(member)...execute() 한 방은 조건에 맞는 모든 행을 하나의 트랜잭션에서 잠그고,
+ * 영속성 컨텍스트를 거치지 않아서 호출자가 em.flush(); em.clear(); 로 전부 비워야 했다.
+ * 여기서는
+ * 1. 조건에 맞는 id 를 member_id 순으로 chunkSize 개씩 (키셋 방식으로) 가져와서
+ * 2. 청크마다 id in (...) 으로 수정/삭제하고 커밋한다. (잠금은 청크 크기만큼만, 청크 시간 동안만 유지)
+ * 3. 수정된 Member 만 영속성 컨텍스트에서 detach 한다. (나머지 엔티티는 그대로 유지)
+ * 4. 청크가 건드린 팀(변경 전/후)의 통계를 같은 트랜잭션에서 다시 계산한다. (엔티티 이벤트가 없으므로)
+ * 5. 청크가 커밋될 때마다 카운트/검색 캐시를 비운다. 중간 청크가 실패해도 앞에서 커밋된 변경은 남으므로 finally 에서도 비운다.
+ * 호출자 트랜잭션 안에서 호출하면 청크도 그 트랜잭션에 참여하므로 청크별 커밋은 일어나지 않는다.
+ * 주의: 벌크 update/delete 는 조인을 쓸 수 없으므로 predicate 는 member 경로(또는 서브쿼리)만 사용해야 한다.
+ */
+@Slf4j
+@Component
+public class MemberBulkExecutor {
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate chunkTx;
+    private final MemberCountCache countCache;
+    private final MemberSearchCache searchCache;
+    private final TeamStatisticsMaintainer teamStatistics;
+    private final int defaultChunkSize;
+
+    public MemberBulkExecutor(EntityManager em,
+                              PlatformTransactionManager transactionManager,
+                              MemberCountCache countCache,
+                              MemberSearchCache searchCache,
+                              TeamStatisticsMaintainer teamStatistics,
+                              @Value("${member.bulk.chunk-size:1000}") int defaultChunkSize) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.countCache = countCache;
+        this.searchCache = searchCache;
+        this.teamStatistics = teamStatistics;
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    public BulkResult update(Predicate predicate, Consumer<JPAUpdateClause> assignments, Consumer<BulkProgress> progress) {
+        return update(predicate, assignments, defaultChunkSize, progress);
+    }
+
+    /**
+     * 예) 28살 미만 나이 +1
+     * update(member.age.lt(28), clause -> clause.set(member.age, member.age.add(1)), 500, progress -> ...)
+     */
+    public BulkResult update(Predicate predicate, Consumer<JPAUpdateClause> assignments, int chunkSize,
+                             Consumer<BulkProgress> progress) {
+        return execute(predicate, chunkSize, progress, ids -> {
+            JPAUpdateClause clause = queryFactory.update(member).where(member.id.in(ids));
+            assignments.accept(clause);
+            return clause.execute();
+        });
+    }
+
+    public BulkResult delete(Predicate predicate, Consumer<BulkProgress> progress) {
+        return delete(predicate, defaultChunkSize, progress);
+    }
+
+    public BulkResult delete(Predicate predicate, int chunkSize, Consumer<BulkProgress> progress) {
+        return execute(predicate, chunkSize, progress, ids -> queryFactory
+                .delete(member)
+                .where(member.id.in(ids))
+                .execute());
+    }
+
+    private BulkResult execute(Predicate predicate, int chunkSize, Consumer<BulkProgress> progress, ChunkStatement statement) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize 는 1 이상이어야 합니다: " + chunkSize);
+        }
+
+        long start = System.nanoTime();
+        long lastId = Long.MIN_VALUE;
+        long affected = 0;
+        int chunks = 0;
+
+        try {
+            while (true) {
+                long afterId = lastId;
+                ChunkResult chunk = chunkTx.execute(status -> {
+                    em.flush(); // 벌크 쿼리 전에 아직 반영되지 않은 변경을 DB 에 반영
+                    List<Long> ids = queryFactory
+                            .select(member.id)
+                            .from(member)
+                            .where(predicate, member.id.gt(afterId))
+                            .orderBy(member.id.asc())
+                            .limit(chunkSize)
+                            .fetch();
+                    if (ids.isEmpty()) {
+                        return null;
+                    }
+                    List<Long> teamIds = teamIdsOf(ids);
+                    long count = statement.execute(ids);
+                    teamIds.addAll(teamIdsOf(ids)); // update 로 팀이 바뀐 경우 새 팀 (delete 면 비어 있다)
+                    recomputeTeamStatistics(teamIds);
+                    evict(ids);
+                    return new ChunkResult(ids.get(ids.size() - 1), count);
+                });
+
+                if (chunk == null) {
+                    break;
+                }
+                lastId = chunk.lastId();
+                affected += chunk.affected();
+                chunks++;
+                countCache.invalidateAll(); // 청크는 이미 커밋됐다. (호출자 트랜잭션이면 finally 에서 커밋 후에 한 번 더 비운다)
+                searchCache.invalidateAll();
+
+                BulkProgress current = new BulkProgress(chunks, affected, (System.nanoTime() - start) / 1_000_000);
+                log.debug("member bulk progress: {}", current);
+                progress.accept(current);
+            }
+        } finally {
+            invalidateCaches();
+        }
+
+        return new BulkResult(chunks, affected, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 벌크 쿼리로 바뀐 행의 엔티티만 영속성 컨텍스트에서 분리한다. 다음 조회 시 DB 에서 새로 읽게 된다.
+     * getReference 는 이미 관리 중인 엔티티가 있으면 그것을, 없으면 DB 조회 없이 프록시를 돌려주므로 바로 detach 하면 된다.
+     */
+    private void evict(List<Long> ids) {
+        for (Long id : ids) {
+            em.detach(em.getReference(Member.class, id));
+        }
+    }
+
+    private List<Long> teamIdsOf(List<Long> ids) {
+        if (!teamStatistics.isEnabled()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(queryFactory
+                .select(member.team.id).distinct()
+                .from(member)
+                .where(member.id.in(ids), member.team.isNotNull())
+                .fetch());
+    }
+
+    private void recomputeTeamStatistics(List<Long> teamIds) {
+        if (!teamIds.isEmpty()) {
+            em.unwrap(Session.class).doWork(connection -> teamStatistics.recompute(connection, teamIds));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkStatement {
+        long execute(List<Long> ids);
+    }
+
+    private record ChunkResult(long lastId, long affected) {
+    }
+
+    /**
+     * 벌크 연산은 엔티티 이벤트가 없으므로 카운트/검색 결과 캐시를 직접 비운다.
+     * 호출자 트랜잭션에 참여한 경우 커밋 전에 다른 요청이 이전 결과를 다시 캐시할 수 있으므로 커밋 후에 한 번 더 비운다.
+     */
+    private void invalidateCaches() {
+        countCache.invalidateAll();
+        searchCache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    countCache.invalidateAll();
+                    searchCache.invalidateAll();
+                }
+            });
+        }
+    }
+
+    public record BulkProgress(int chunks, long affected, long elapsedMillis) {
+    }
+
+    public record BulkResult(int chunks, long affected, long elapsedMillis) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.columnar.MemberColumns;
+import com.practice.querydsl.columnar.MemberColumnsBuilder;
+import com.practice.querydsl.dto.MemberSearchCondition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+
+/**
+ * searchByWhereParam 과 같은 검색을 JPA 를 거치지 않고 JDBC 로 실행해서 결과를 바로 MemberColumns 에 채운다.
+ * 행마다 MemberTeamDto, Long, String(팀 이름) 객체를 만들지 않으므로 대량 조회(분석용 export)에 사용한다.
+ * SQL 은 조건 모양별로 한 번만 만들어 둔 것(MemberSearchSql)을 쓰고 값은 바인딩한다.
+ * 검색 캐시는 사용하지 않는다. (결과가 커서 캐시 대상이 아니다)
+ */
+@Repository
+@Transactional(readOnly = true)
+public class MemberColumnarRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public MemberColumnarRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${member.stream.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    public MemberColumns search(MemberSearchCondition condition) {
+        MemberSearchShape shape = MemberSearchShape.of(condition);
+        MemberColumnsBuilder builder = new MemberColumnsBuilder();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(MemberSearchSql.of(shape));
+            statement.setFetchSize(fetchSize);
+            Object[] parameters = MemberSearchSql.parameters(shape, condition);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            return statement;
+        }, builder);
+        return builder.build();
+    }
+}
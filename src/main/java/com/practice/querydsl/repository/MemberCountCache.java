@@ -0,0 +1,117 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.monitor.MemberSearchMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 검색 조건별 전체 카운트 캐시.
+ * 같은 조건으로 1..N 페이지를 넘겨보는 동안 카운트 쿼리 결과는 바뀌지 않으므로, 정규화한 조건을 키로 total 을 재사용한다.
+ * - TTL 이 지나면 다시 카운트 쿼리를 실행한다.
+ * - 최대 크기를 넘으면 가장 오래 사용되지 않은 조건부터 제거한다. (LRU)
+ * - 회원/팀 변경이 커밋되면 MemberCountCacheInvalidator 가, 벌크 수정/JDBC 적재는 호출자가 invalidateAll() 로 전부 비운다.
+ * - 쓰기 트랜잭션 안의 카운트는 캐시하지 않는다. (커밋되지 않은 변경이 반영된 total 이 다른 요청에 보이는 것을 막는다)
+ * - 카운트하는 동안 무효화가 일어나면 그 결과는 저장하지 않는다. (epoch 비교)
+ */
+@Component
+public class MemberCountCache {
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<CountKey, CountEntry> entries;
+    private final MemberSearchMetrics metrics;
+    private long epoch; // entries 로 동기화
+
+    public MemberCountCache(@Value("${member.count-cache.enabled:true}") boolean enabled,
+                            @Value("${member.count-cache.ttl:30s}") Duration ttl,
+                            @Value("${member.count-cache.max-size:1000}") int maxSize,
+                            MemberSearchMetrics metrics) {
+        this.enabled = enabled;
+        this.metrics = metrics;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CountKey, CountEntry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public long get(MemberSearchCondition condition, LongSupplier countQuery) {
+        if (!enabled || !cacheableTransaction()) {
+            metrics.countExecuted();
+            return countQuery.getAsLong();
+        }
+
+        CountKey key = CountKey.of(condition);
+        long now = System.nanoTime();
+        long loadEpoch;
+        synchronized (entries) {
+            CountEntry entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt < ttlNanos) {
+                metrics.countCached();
+                return entry.total;
+            }
+            loadEpoch = epoch;
+        }
+
+        // 카운트 쿼리는 락 밖에서 실행한다. 동시에 같은 조건이 들어오면 중복 실행될 수 있지만 결과는 같다.
+        metrics.countExecuted();
+        long total = countQuery.getAsLong();
+        synchronized (entries) {
+            if (epoch == loadEpoch) {
+                entries.put(key, new CountEntry(total, now));
+            }
+        }
+        return total;
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            epoch++;
+            entries.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 트랜잭션 밖이거나 읽기 전용 트랜잭션일 때만 캐시한다. (MemberSearchCache 와 같은 규칙)
+     */
+    private static boolean cacheableTransaction() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * 빈 문자열과 null 은 같은 조건(필터 없음)으로 취급한다. 검색 쿼리의 usernameEq/teamNameEq 와 같은 규칙이다.
+     */
+    private record CountKey(String username, String teamName, Integer ageGoe, Integer ageLoe) {
+        static CountKey of(MemberSearchCondition condition) {
+            return new CountKey(
+                    StringUtils.hasText(condition.getUsername()) ? condition.getUsername() : null,
+                    StringUtils.hasText(condition.getTeamName()) ? condition.getTeamName() : null,
+                    condition.getAgeGoe(),
+                    condition.getAgeLoe());
+        }
+    }
+
+    private record CountEntry(long total, long loadedAt) {
+    }
+}
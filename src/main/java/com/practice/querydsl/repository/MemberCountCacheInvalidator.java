@@ -0,0 +1,81 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원/팀 변경이 커밋된 뒤 카운트 캐시를 비운다. (MemberSearchCacheInvalidator 와 같은 POST_COMMIT_* 이벤트)
+ * em.persist/remove, Spring Data save/delete, 변경 감지(dirty checking) 모두 여기로 들어온다.
+ * 커밋 후에 비우므로 커밋 전에 실행된 카운트가 이전 total 을 다시 캐시하지 않는다. (MemberCountCache 의 epoch 비교)
+ * 조건별로 골라 지우기에는 total 이 어느 조건에 영향을 받는지 계산하는 비용이 더 크므로 전부 비운다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberCountCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MemberCountCache countCache;
+
+    @PostConstruct
+    void register() {
+        if (!countCache.isEnabled()) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return entityClass == Member.class || entityClass == Team.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) { // 새 팀은 회원이 없으므로 어떤 카운트도 바꾸지 않는다.
+            countCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        countCache.invalidateAll(); // 회원의 나이/이름/팀, 팀 이름 모두 검색 조건이다.
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        countCache.invalidateAll();
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+}
@@ -1,5 +1,8 @@
 package com.practice.querydsl.repository;
 
+import com.practice.querydsl.cache.MemberSearchCache;
+import com.practice.querydsl.cache.MemberSearchCodec;
+import com.practice.querydsl.cache.MemberSearchKey;
 import com.practice.querydsl.dto.MemberSearchCondition;
 import com.practice.querydsl.dto.MemberTeamDto;
 import com.practice.querydsl.dto.QMemberTeamDto;
@@ -7,18 +10,25 @@ import com.practice.querydsl.entity.Member;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static com.practice.querydsl.entity.QMember.member;
 import static com.practice.querydsl.entity.QTeam.team;
+import static com.practice.querydsl.repository.MemberQueryPlanner.Projection;
+import static com.practice.querydsl.repository.MemberQueryPlanner.joins;
 
 @Repository
 @Transactional(readOnly = true)
@@ -27,6 +37,11 @@ public class MemberJpaRepository {
 
     private final EntityManager em; // 순수 JPA 사용 시 필요
     private final JPAQueryFactory queryFactory; // Bean 등록하여 가져옴
+    private final MemberSearchTemplates searchTemplates;
+    private final MemberSearchCache searchCache;
+
+    @Value("${member.stream.fetch-size:500}")
+    private int streamFetchSize; // 스트리밍 조회 시 JDBC 드라이버가 한 번에 가져오는 행 수
 
     /**
      * 동시성 문제는 걱정하지 않아도 된다. 왜냐하면 스프링이 주입해주는 엔티티 매니저는 실제 동작 시점에
@@ -37,7 +52,7 @@ public class MemberJpaRepository {
 
     @Transactional
     public void save(Member member) {
-        em.persist(member);
+        em.persist(member); // 카운트 캐시는 커밋 후 MemberCountCacheInvalidator 가 비운다.
     }
 
     public Optional<Member> findById(Long id) {
@@ -86,23 +101,49 @@ public class MemberJpaRepository {
             booleanBuilder.and(member.age.loe(condition.getAgeLoe()));
         }
 
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
+        return selectMemberTeam(condition)
                 .where(booleanBuilder)
                 .fetch();
 
     }
 
     public List<MemberTeamDto> searchByWhereParam(MemberSearchCondition condition) {
-        return queryFactory
+        // where 절에 null 을 넘기는 방식과 같은 쿼리를 조건 모양별 템플릿으로 만들어 두고 값만 바인딩한다.
+        // searchByBuilder 는 요청마다 쿼리를 새로 조립하는 기준(비교 대상)으로 남겨둔다.
+        // MemberRepository.search 와 같은 결과이므로 캐시 키를 공유한다.
+        return searchCache.get(MemberSearchKey.of("search", condition),
+                () -> searchTemplates.search(em, condition),
+                MemberSearchCodec.LIST);
+    }
+
+    /**
+     * searchByWhereParam 의 스트리밍 버전. 결과를 List 로 모으지 않고 커서(ScrollableResults)로 한 행씩 consumer 에 넘긴다.
+     * - fetch size 만큼씩만 드라이버가 가져오므로 결과 크기와 상관없이 메모리 사용량이 일정하다.
+     * - DTO 프로젝션이라 영속성 컨텍스트에 엔티티가 쌓이지 않으므로 em.clear() 하지 않는다.
+     *   (호출자 트랜잭션에 참여한 경우 호출자의 엔티티까지 detach 하게 된다)
+     * - consumer 에서 예외가 나면 (예: 클라이언트 연결 종료) try-with-resources 가 커서를 닫는다.
+     * 커서는 트랜잭션 안에서만 유효하므로 consumer 는 이 메서드 안에서 바로 소비해야 한다.
+     */
+    public void streamByWhereParam(MemberSearchCondition condition, Consumer<MemberTeamDto> consumer) {
+        try (Stream<MemberTeamDto> rows = selectMemberTeam(condition)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                )
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .stream()) {
+            rows.forEach(consumer);
+        }
+    }
+
+    /**
+     * MemberTeamDto 프로젝션은 team 컬럼을 조회하므로 플래너가 항상 team 조인을 붙인다.
+     */
+    private JPAQuery<MemberTeamDto> selectMemberTeam(MemberSearchCondition condition) {
+        JPAQuery<MemberTeamDto> query = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.username,
@@ -110,15 +151,8 @@ public class MemberJpaRepository {
                         team.id.as("teamId"),
                         team.name.as("teamName")
                 ))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetch();
+                .from(member);
+        return joins(query, condition, Projection.MEMBER_TEAM);
     }
 
     private BooleanExpression usernameEq(String username) {
@@ -0,0 +1,298 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.datasource.ReadYourWritesContext;
+import com.practice.querydsl.monitor.MemberSearchMetrics;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 페이징 조회의 컨텐츠 쿼리와 카운트 쿼리를 실행한다.
+ * - 기본(순차) 모드: 컨텐츠 조회 후 카운트 조회. 페이지 응답 시간 = 두 쿼리 시간의 합
+ * - 동시 모드(member.search.concurrent-count.enabled=true): 카운트 쿼리를 별도 스레드에서 동시에 실행한다.
+ *   스레드마다 각자의 읽기 전용 트랜잭션(= 각자의 커넥션, 영속성 컨텍스트)을 사용한다. 응답 시간 ≈ 두 쿼리 중 느린 쪽
+ *   PageableExecutionUtils 가 카운트가 필요 없다고 판단하면 실행 중인 카운트 쿼리는 취소한다.
+ *   미리 실행한 카운트의 member.search.count{executed|cached} 는 결과를 쓸 때만 기록한다. (버리면 skipped 만 기록)
+ *   취소는 스레드 인터럽트만으로는 JDBC 실행이 멈추지 않으므로 Session.cancelQuery() 로 실행 중인 문장을 취소하고,
+ *   (문장이 등록되기 전에 취소하면 아무 일도 일어나지 않으므로 카운트 스레드가 끝날 때까지 반복한다)
+ *   카운트 트랜잭션에는 timeout(member.search.concurrent-count.timeout) 을 걸어서 쿼리 타임아웃으로도 끊기게 한다.
+ *   가상 스레드가 활성화되어 있으면(spring.threads.virtual.enabled=true + Java 21 이상) 고정 크기 풀 대신
+ *   카운트 쿼리마다 가상 스레드를 만든다. (동시 실행 수는 제한) Java 17 에서는 설정과 관계없이 고정 크기 풀을 사용한다.
+ * 카운트 스레드에는 요청의 read-your-writes 창을 넘겨서, 창 안에서는 컨텐츠와 카운트를 모두 primary 에서 읽는다.
+ * 주의: 동시 모드의 카운트 쿼리는 별도 트랜잭션이므로 호출자 트랜잭션에서 아직 커밋되지 않은 데이터는 보지 못한다.
+ */
+@Slf4j
+@Component
+public class MemberPageExecutor implements DisposableBean {
+
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate countTx;
+    private final AsyncTaskExecutor countExecutor; // null 이면 순차 모드
+    private final Duration countTimeout;
+    private final MemberSearchMetrics metrics;
+
+    @Autowired
+    public MemberPageExecutor(EntityManager em,
+                              PlatformTransactionManager transactionManager,
+                              MemberSearchMetrics metrics,
+                              @Value("${member.search.concurrent-count.enabled:false}") boolean concurrent,
+                              @Value("${member.search.concurrent-count.pool-size:8}") int poolSize,
+                              @Value("${member.search.concurrent-count.timeout:10s}") Duration countTimeout,
+                              Environment environment) {
+        this(em, transactionManager, metrics, !concurrent ? null : countExecutor(poolSize, environment), countTimeout);
+    }
+
+    /**
+     * spring.threads.virtual.enabled 만 보고 가상 스레드를 켜면 Java 17 에서 setVirtualThreads 가 예외를 던져 기동이 실패한다.
+     * 스프링 부트와 같은 판단(Threading.VIRTUAL: 설정 + Java 21 이상)을 따른다.
+     */
+    static AsyncTaskExecutor countExecutor(int poolSize, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualExecutor(poolSize);
+        }
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("가상 스레드는 Java 21 이상에서만 동작합니다. (현재 {}) 카운트 쿼리는 고정 크기 풀에서 실행합니다.", Runtime.version());
+        }
+        return boundedExecutor(poolSize);
+    }
+
+    MemberPageExecutor(EntityManager em, PlatformTransactionManager transactionManager, MemberSearchMetrics metrics,
+                       AsyncTaskExecutor countExecutor, Duration countTimeout) {
+        this.em = em;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.countTx = new TransactionTemplate(transactionManager);
+        this.countTx.setReadOnly(true);
+        this.countTx.setTimeout((int) Math.max(countTimeout.toSeconds(), 1));
+        this.metrics = metrics;
+        this.countExecutor = countExecutor;
+        this.countTimeout = countTimeout;
+    }
+
+    /**
+     * 카운트 쿼리 전용 스레드 풀. 풀과 대기열이 모두 차면 호출 스레드에서 순차로 실행한다. (submitCount 참고)
+     */
+    static ThreadPoolTaskExecutor boundedExecutor(int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 16);
+        executor.setThreadNamePrefix("member-count-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 카운트 쿼리마다 가상 스레드를 만든다. JDBC 대기 중에는 캐리어 스레드를 놓아주므로 풀 크기에 묶이지 않는다.
+     * 다만 커넥션 풀보다 훨씬 많이 동시에 실행해 봐야 커넥션 대기만 늘어나므로 poolSize * 16 개로 제한한다.
+     * (제한에 걸리면 submit 하는 스레드가 기다린다)
+     */
+    static SimpleAsyncTaskExecutor virtualExecutor(int poolSize) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("member-count-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(poolSize * 16);
+        return executor;
+    }
+
+    public boolean isConcurrent() {
+        return countExecutor != null;
+    }
+
+    public <T> Page<T> getPage(Supplier<List<T>> contentQuery, Pageable pageable, LongSupplier countQuery) {
+        if (!isConcurrent()) {
+            List<T> content = contentQuery.get();
+            return new PageImpl<>(content, pageable, countQuery.getAsLong());
+        }
+
+        PendingCount count = submitCount(countQuery);
+        try {
+            List<T> content = readOnlyTx.execute(status -> contentQuery.get());
+            return new PageImpl<>(content, pageable, count.await());
+        } finally {
+            count.cancel(); // 컨텐츠 조회가 실패한 경우 카운트도 중단
+        }
+    }
+
+    public <T> Page<T> getOptimizedPage(Supplier<List<T>> contentQuery, Pageable pageable, LongSupplier countQuery) {
+        if (!isConcurrent()) {
+            List<T> content = contentQuery.get();
+            return withSkipMetric(content, pageable, countQuery);
+        }
+
+        PendingCount count = submitCount(countQuery);
+        try {
+            List<T> content = readOnlyTx.execute(status -> contentQuery.get());
+            return withSkipMetric(content, pageable, count::await);
+        } finally {
+            // PageableExecutionUtils 가 카운트를 요청하지 않았다면 (첫 페이지 또는 마지막 페이지) 여기서 취소된다.
+            count.cancel();
+        }
+    }
+
+    /**
+     * PageableExecutionUtils 가 total 을 컨텐츠 크기로 계산해 카운트를 요청하지 않은 경우를 member.search.count{result=skipped} 로 기록한다.
+     */
+    private <T> Page<T> withSkipMetric(List<T> content, Pageable pageable, LongSupplier countQuery) {
+        AtomicBoolean requested = new AtomicBoolean();
+        Page<T> page = PageableExecutionUtils.getPage(content, pageable, () -> {
+            requested.set(true);
+            return countQuery.getAsLong();
+        });
+        if (!requested.get()) {
+            metrics.countSkipped();
+        }
+        return page;
+    }
+
+    private PendingCount submitCount(LongSupplier countQuery) {
+        PendingCount count = new PendingCount();
+        long primaryUntil = ReadYourWritesContext.primaryUntil(); // 요청 스레드의 창을 카운트 스레드로
+        try {
+            count.future = countExecutor.submit(() -> count.run(countQuery, primaryUntil));
+        } catch (TaskRejectedException e) {
+            count.future = CompletableFuture.completedFuture(count.count(countQuery));
+        }
+        return count;
+    }
+
+    /**
+     * 실행 중인 카운트 쿼리. 실행하는 스레드의 세션을 잡아 두었다가 취소할 때 그 세션의 JDBC 문장을 취소한다.
+     */
+    private class PendingCount {
+
+        private static final long CANCEL_RETRY_MILLIS = 10;
+
+        private final AtomicReference<Session> session = new AtomicReference<>();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile boolean started;
+        private volatile boolean cancelled;
+        private volatile MemberSearchMetrics.DeferredCount metric;
+        private Future<Long> future;
+
+        Long run(LongSupplier countQuery, long primaryUntil) {
+            started = true;
+            ReadYourWritesContext.open(primaryUntil, null); // 읽기 전용 트랜잭션이므로 쓰기 콜백은 없다.
+            try {
+                return countTx.execute(status -> {
+                    session.set(transactionalSession());
+                    try {
+                        if (cancelled) { // 세션을 잡기 전에 취소된 경우
+                            throw new CancellationException();
+                        }
+                        return count(countQuery);
+                    } finally {
+                        session.set(null);
+                    }
+                });
+            } finally {
+                ReadYourWritesContext.close();
+                finished.countDown();
+            }
+        }
+
+        /**
+         * 공유 EntityManager 프록시의 unwrap(Session) 은 프록시 자신을 돌려주고, 프록시의 cancelQuery() 는 호출한 스레드의 세션으로 간다.
+         * 취소하는 스레드에서 쓸 수 있도록 이 트랜잭션에 묶인 실제 세션을 잡는다.
+         */
+        private Session transactionalSession() {
+            return EntityManagerFactoryUtils.getTransactionalEntityManager(em.getEntityManagerFactory()).unwrap(Session.class);
+        }
+
+        long count(LongSupplier countQuery) {
+            try (MemberSearchMetrics.DeferredCount deferred = metrics.deferCount()) {
+                long total = countQuery.getAsLong();
+                metric = deferred;
+                return total;
+            }
+        }
+
+        /**
+         * 결과를 쓰는 시점에 카운트 메트릭을 기록한다.
+         */
+        long await() {
+            try {
+                long total = future.get();
+                metric.commit();
+                return total;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("카운트 쿼리 대기 중 인터럽트가 발생했습니다.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("카운트 쿼리 실행에 실패했습니다.", e.getCause());
+            }
+        }
+
+        /**
+         * cancelQuery() 는 세션에 등록된 마지막 문장만 취소한다. 세션을 잡은 직후 문장이 등록되기 전이면 아무 일도 없으므로
+         * 카운트 스레드가 끝날 때까지 (최대 카운트 타임아웃 동안) 다시 취소한다.
+         */
+        void cancel() {
+            if (future.isDone()) {
+                return;
+            }
+            cancelled = true;
+            future.cancel(true);
+            long deadline = System.nanoTime() + countTimeout.toNanos();
+            try {
+                while (started && System.nanoTime() < deadline) {
+                    Session running = session.get();
+                    if (running != null) {
+                        try {
+                            running.cancelQuery();
+                        } catch (RuntimeException e) {
+                            log.debug("count query cancel failed", e);
+                        }
+                    }
+                    if (finished.await(CANCEL_RETRY_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (countExecutor instanceof ThreadPoolTaskExecutor executor) {
+            executor.shutdown();
+        } else if (countExecutor instanceof SimpleAsyncTaskExecutor executor) {
+            executor.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.querydsl.jpa.impl.JPAQuery;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static com.practice.querydsl.entity.QTeam.team;
+
+/**
+ * 검색 조건과 조회 컬럼을 보고 꼭 필요한 조인만 붙여주는 작은 쿼리 플래너.
+ * team 조인이 필요한 경우는 두 가지뿐이다.
+ * 1. teamName 조건이 있어서 where 절에서 team.name 을 참조할 때
+ * 2. 프로젝션에 team 컬럼(team.id, team.name)이 포함될 때
+ * 예) username, age 조건만 있는 카운트 쿼리 => member 테이블만 조회한다.
+ */
+final class MemberQueryPlanner {
+
+    private MemberQueryPlanner() {
+    }
+
+    static boolean needsTeamJoin(MemberSearchCondition condition, Projection projection) {
+        return needsTeamJoin(MemberSearchShape.of(condition), projection);
+    }
+
+    static boolean needsTeamJoin(MemberSearchShape shape, Projection projection) {
+        return projection == Projection.MEMBER_TEAM || shape.hasTeamName();
+    }
+
+    static <T> JPAQuery<T> joins(JPAQuery<T> query, MemberSearchCondition condition, Projection projection) {
+        return joins(query, MemberSearchShape.of(condition), projection);
+    }
+
+    /**
+     * teamName 조건이 있으면 where 절에서 team.name = ? 으로 팀이 없는 회원이 어차피 걸러지므로 inner join 과 결과가 같다.
+     * 이때 inner join 을 사용하면 DB 가 조인 순서를 바꿀 수 있어서 idx_team_name -> idx_member_team_age 순으로 찾아간다.
+     * (left join 은 member 를 먼저 읽어야 하므로 member 전체 스캔이 된다. MemberSearchIndexAdvisor 참고)
+     */
+    static <T> JPAQuery<T> joins(JPAQuery<T> query, MemberSearchShape shape, Projection projection) {
+        if (shape.hasTeamName()) {
+            query.join(member.team, team);
+        } else if (needsTeamJoin(shape, projection)) {
+            query.leftJoin(member.team, team);
+        }
+        return query;
+    }
+
+    /**
+     * 쿼리가 select 절에서 사용하는 컬럼의 범위.
+     */
+    enum Projection {
+        /** member 컬럼만 사용 (카운트 쿼리, member 엔티티 조회) */
+        MEMBER,
+        /** team 컬럼까지 사용 (MemberTeamDto) */
+        MEMBER_TEAM
+    }
+}
@@ -1,5 +1,7 @@
 package com.practice.querydsl.repository;
 
+import com.practice.querydsl.dto.MemberCursor;
+import com.practice.querydsl.dto.MemberCursorPage;
 import com.practice.querydsl.dto.MemberSearchCondition;
 import com.practice.querydsl.dto.MemberTeamDto;
 import org.springframework.data.domain.Page;
@@ -12,6 +14,7 @@ public interface MemberRepositoryCustom {
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageCountOptimization(MemberSearchCondition condition, Pageable pageable);
+    MemberCursorPage searchAfter(MemberSearchCondition condition, MemberCursor cursor, int size);
 
 
 }
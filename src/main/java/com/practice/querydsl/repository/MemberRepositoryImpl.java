@@ -1,10 +1,17 @@
 package com.practice.querydsl.repository;
 
+import com.practice.querydsl.cache.MemberSearchCache;
+import com.practice.querydsl.cache.MemberSearchCodec;
+import com.practice.querydsl.cache.MemberSearchKey;
+import com.practice.querydsl.dto.MemberCursor;
+import com.practice.querydsl.dto.MemberCursorPage;
 import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.MemberSortKey;
 import com.practice.querydsl.dto.MemberTeamDto;
 import com.practice.querydsl.dto.QMemberTeamDto;
-import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.monitor.MemberSearchMetrics;
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
@@ -12,55 +19,54 @@ import jakarta.persistence.EntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
 
 import static com.practice.querydsl.entity.QMember.member;
 import static com.practice.querydsl.entity.QTeam.team;
+import static com.practice.querydsl.repository.MemberQueryPlanner.Projection;
+import static com.practice.querydsl.repository.MemberQueryPlanner.joins;
 
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    private final EntityManager em;
     private final JPAQueryFactory queryFactory;
-
-    public MemberRepositoryImpl(EntityManager entityManager) {
+    private final MemberCountCache countCache;
+    private final MemberPageExecutor pageExecutor;
+    private final MemberSearchTemplates searchTemplates;
+    private final MemberSearchMetrics metrics;
+    private final MemberSearchCache searchCache;
+
+    public MemberRepositoryImpl(EntityManager entityManager, MemberCountCache countCache,
+                                MemberPageExecutor pageExecutor, MemberSearchTemplates searchTemplates,
+                                MemberSearchMetrics metrics, MemberSearchCache searchCache) {
+        this.em = entityManager;
         this.queryFactory = new JPAQueryFactory(entityManager);
+        this.countCache = countCache;
+        this.pageExecutor = pageExecutor;
+        this.searchTemplates = searchTemplates;
+        this.metrics = metrics;
+        this.searchCache = searchCache;
     }
 
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetch();
+        // 조건 모양별로 미리 만들어 둔 템플릿에 값만 바인딩한다. (MemberSearchTemplates 참고)
+        return searchCache.get(MemberSearchKey.of("search", condition),
+                () -> searchTemplates.search(em, condition),
+                MemberSearchCodec.LIST);
     }
 
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
-        QueryResults<MemberTeamDto> results = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
+        return searchCache.get(pageKey("searchPageSimple", condition, pageable),
+                () -> fetchPageSimple(condition, pageable),
+                MemberSearchCodec.page(pageable));
+    }
+
+    private Page<MemberTeamDto> fetchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        QueryResults<MemberTeamDto> results = selectMemberTeam(condition)
                 .where(
                         usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
@@ -70,6 +76,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetchResults();
+        metrics.countExecuted(); // fetchResults 는 항상 카운트 쿼리를 함께 실행한다.
 
         List<MemberTeamDto> content = results.getResults();
         long total = results.getTotal();
@@ -80,62 +87,129 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
         // 전체 데이터 조회와 카운트 쿼리 분리
-        List<MemberTeamDto> content = getMemberTeamDtos(condition, pageable);
-
         // 상황에 따라 조인이 필요없는 카운트 쿼리가 존재하여, 카운트 쿼리를 분리하면 최적화를 할 수 있게 된다.
-        long total = getCountQuery(condition).fetchCount();
-
-        return new PageImpl<>(content, pageable, total);
+        // 같은 조건으로 페이지를 넘기는 동안에는 캐시된 total 을 재사용한다.
+        // 동시 모드에서는 두 쿼리가 각자의 트랜잭션으로 동시에 실행된다. (MemberPageExecutor 참고)
+        return searchCache.get(pageKey("searchPageComplex", condition, pageable),
+                () -> pageExecutor.getPage(
+                        () -> getMemberTeamDtos(condition, pageable),
+                        pageable,
+                        () -> countCache.get(condition, () -> countQuery(condition))),
+                MemberSearchCodec.page(pageable));
     }
 
     @Override
     public Page<MemberTeamDto> searchPageCountOptimization(MemberSearchCondition condition, Pageable pageable) {
         // 전체 데이터 조회와 카운트 쿼리 분리
-        List<MemberTeamDto> content = getMemberTeamDtos(condition, pageable);
-
-        JPAQuery<Member> countQuery = getCountQuery(condition);
 
         /** PageableExecutionUtils -> 카운트 쿼리 최적화
          * 카운트 쿼리가 생략 가능한 경우 생략해서 페이징 처리해준다.
          * 1. 시작 페이지이면서 컨텐츠 사이즈가 페이지 사이즈보다 작을 때
          * 2. 마지막 페이지일 때 (offset + content size 를 더해서 total 구함)
          */
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
+        return searchCache.get(pageKey("searchPageCountOptimization", condition, pageable),
+                () -> pageExecutor.getOptimizedPage(
+                        () -> getMemberTeamDtos(condition, pageable),
+                        pageable,
+                        () -> countCache.get(condition, () -> countQuery(condition))),
+                MemberSearchCodec.page(pageable));
     }
 
-    private List<MemberTeamDto> getMemberTeamDtos(MemberSearchCondition condition, Pageable pageable) {
-        List<MemberTeamDto> content = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
+    /**
+     * 키셋(seek) 페이징: offset 대신 마지막으로 조회한 행의 (정렬 키, member_id) 이후부터 조회한다.
+     * offset 은 앞 페이지의 행을 모두 읽고 버리기 때문에 페이지가 깊어질수록 느려지지만,
+     * 키셋 방식은 인덱스를 타고 바로 시작 위치를 찾으므로 페이지 깊이와 무관하게 응답 시간이 일정하다.
+     * 다음 페이지 존재 여부는 size + 1 건을 조회해서 판단한다. (카운트 쿼리 없음)
+     */
+    @Override
+    public MemberCursorPage searchAfter(MemberSearchCondition condition, MemberCursor cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size 는 1 이상이어야 합니다: " + size);
+        }
+        String cursorKey = cursor.isFirst() ? cursor.getSortKey().name() : cursor.encode();
+        return searchCache.get(MemberSearchKey.of("searchAfter", condition, 0, size, cursorKey),
+                () -> fetchAfter(condition, cursor, size),
+                MemberSearchCodec.CURSOR_PAGE);
+    }
+
+    private MemberCursorPage fetchAfter(MemberSearchCondition condition, MemberCursor cursor, int size) {
+        List<MemberTeamDto> rows = selectMemberTeam(condition)
                 .where(
                         usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
+                        ageLoe(condition.getAgeLoe()),
+                        seekAfter(cursor)
                 )
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
+                .orderBy(seekOrder(cursor.getSortKey()))
+                .limit(size + 1)
                 .fetch();
-        return content;
+
+        boolean hasNext = rows.size() > size;
+        List<MemberTeamDto> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? MemberCursor.after(cursor.getSortKey(), content.get(content.size() - 1)).encode()
+                : null;
+
+        return new MemberCursorPage(content, size, hasNext, nextCursor);
+    }
+
+    private BooleanExpression seekAfter(MemberCursor cursor) {
+        if (cursor.isFirst()) {
+            return null;
+        }
+        if (cursor.getSortKey() == MemberSortKey.AGE) {
+            // (age, member_id) > (lastAge, lastId)
+            return member.age.gt(cursor.getLastAge())
+                    .or(member.age.eq(cursor.getLastAge()).and(member.id.gt(cursor.getLastId())));
+        }
+        return member.id.gt(cursor.getLastId());
+    }
+
+    private OrderSpecifier<?>[] seekOrder(MemberSortKey sortKey) {
+        if (sortKey == MemberSortKey.AGE) {
+            return new OrderSpecifier<?>[]{member.age.asc(), member.id.asc()};
+        }
+        return new OrderSpecifier<?>[]{member.id.asc()};
+    }
+
+    private MemberSearchKey pageKey(String operation, MemberSearchCondition condition, Pageable pageable) {
+        return MemberSearchKey.of(operation, condition, pageable.getOffset(), pageable.getPageSize(), null);
     }
 
-    private JPAQuery<Member> getCountQuery(MemberSearchCondition condition) {
-        return queryFactory
-                .selectFrom(member)
-                .leftJoin(member.team, team)
+    private List<MemberTeamDto> getMemberTeamDtos(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = selectMemberTeam(condition)
                 .where(
                         usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())
-                );
+                )
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+        return content;
+    }
+
+    private long countQuery(MemberSearchCondition condition) {
+        // teamName 조건이 없으면 team 조인 없이 member 만 카운트한다. (MemberSearchTemplates.count)
+        return searchTemplates.count(em, condition);
+    }
+
+    /**
+     * MemberTeamDto 프로젝션은 team 컬럼을 조회하므로 플래너가 항상 team 조인을 붙인다.
+     */
+    private JPAQuery<MemberTeamDto> selectMemberTeam(MemberSearchCondition condition) {
+        JPAQuery<MemberTeamDto> query = queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member);
+        return joins(query, condition, Projection.MEMBER_TEAM);
     }
 
     private BooleanExpression usernameEq(String username) {
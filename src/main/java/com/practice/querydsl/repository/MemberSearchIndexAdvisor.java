@@ -0,0 +1,155 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.monitor.StatementRecorder;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 검색 조건 모양(16가지)마다 검색 쿼리의 H2 실행 계획(EXPLAIN)을 확인해서 전체 테이블 스캔으로 빠지는 모양을 알려준다.
+ * 모양마다 실제로 실행되는 세 가지 SQL 을 확인한다.
+ * - SEARCH, COUNT: 검색/카운트 템플릿(MemberSearchTemplates)을 예시 값으로 한 번 실행해서 Hibernate 가 만든 SQL 을
+ *   StatementRecorder 로 잡는다. (직접 만든 SQL 이 아니라 실제 SQL 의 계획을 본다)
+ * - COLUMNAR: 컬럼 형식 조회의 JDBC SQL (MemberSearchSql)
+ * 바인딩 값은 where 절 순서(username, teamName, ageGoe, ageLoe)대로 넣는다. 개수가 맞지 않으면 예외를 던진다.
+ * 조건이 하나도 없는 모양은 원래 전체 조회이므로 검사하지 않는다.
+ * member.index-advisor.mode
+ * - off: 기동 시 검사하지 않음 (테스트에서 advise() 를 직접 호출)
+ * - warn: 기동 시 검사 후 경고 로그
+ * - fail: 기동 시 검사 후 전체 스캔이 있으면 기동 실패
+ */
+@Slf4j
+@Component
+public class MemberSearchIndexAdvisor {
+
+    private static final String TABLE_SCAN = ".TABLESCAN";
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL); // use_sql_comments 의 JPQL 주석
+
+    private final EntityManager em;
+    private final MemberSearchTemplates searchTemplates;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final Mode mode;
+
+    public MemberSearchIndexAdvisor(EntityManager em, MemberSearchTemplates searchTemplates, JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${member.index-advisor.mode:off}") Mode mode) {
+        this.em = em;
+        this.searchTemplates = searchTemplates;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.mode = mode;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void adviseOnStartup() {
+        if (mode == Mode.OFF) {
+            return;
+        }
+
+        List<ShapePlan> fullScans = advise().stream().filter(ShapePlan::fullScan).toList();
+        for (ShapePlan plan : fullScans) {
+            log.warn("search shape [{}] {} query falls back to a full table scan on {}: {}",
+                    plan.shape(), plan.query(), plan.scannedTables(), plan.plan());
+        }
+        if (mode == Mode.FAIL && !fullScans.isEmpty()) {
+            throw new IllegalStateException("전체 테이블 스캔을 하는 검색 조건이 있습니다: "
+                    + fullScans.stream().map(plan -> plan.shape().tag() + "/" + plan.query()).toList());
+        }
+    }
+
+    public List<ShapePlan> advise() {
+        return readOnlyTx.execute(status -> {
+            List<ShapePlan> plans = new ArrayList<>();
+            for (MemberSearchShape shape : MemberSearchShape.all()) {
+                if (shape.mask() == 0) {
+                    continue;
+                }
+                MemberSearchCondition condition = sample(shape);
+                Object[] parameters = MemberSearchSql.parameters(shape, condition);
+                plans.add(explain(shape, Query.SEARCH,
+                        capture(() -> searchTemplates.createQuery(em, condition).getResultList()), parameters));
+                plans.add(explain(shape, Query.COUNT,
+                        capture(() -> searchTemplates.count(em, condition)), parameters));
+                plans.add(explain(shape, Query.COLUMNAR, MemberSearchSql.of(shape), parameters));
+            }
+            return plans;
+        });
+    }
+
+    /**
+     * 모양에 포함된 필드만 채운 예시 조건. (템플릿은 조건 값으로 모양을 고른다)
+     */
+    private static MemberSearchCondition sample(MemberSearchShape shape) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        if (shape.hasUsername()) condition.setUsername("member1");
+        if (shape.hasTeamName()) condition.setTeamName("teamA");
+        if (shape.hasAgeGoe()) condition.setAgeGoe(10);
+        if (shape.hasAgeLoe()) condition.setAgeLoe(40);
+        return condition;
+    }
+
+    /**
+     * 쿼리를 실행하는 동안 Hibernate 가 실행한 SQL 을 잡는다.
+     */
+    private static String capture(Runnable query) {
+        try (StatementRecorder.Recording recording = StatementRecorder.start(Integer.MAX_VALUE)) {
+            query.run();
+            if (recording.statements().size() != 1) {
+                throw new IllegalStateException("SQL 한 건을 기대했지만 " + recording.statements().size() + "건이 실행되었습니다.");
+            }
+            return COMMENT.matcher(recording.statements().get(0)).replaceAll("").trim();
+        }
+    }
+
+    private ShapePlan explain(MemberSearchShape shape, Query query, String sql, Object[] parameters) {
+        if (StringUtils.countOccurrencesOf(sql, "?") != parameters.length) {
+            throw new IllegalStateException("바인딩 값 수(" + parameters.length + ")가 SQL 과 맞지 않습니다: " + sql);
+        }
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class, parameters);
+        return new ShapePlan(shape, query, sql, plan, scannedTables(plan));
+    }
+
+    /**
+     * H2 실행 계획은 전체 스캔을 PUBLIC.MEMBER.tableScan 처럼 표시한다.
+     * member 가 조건으로 걸러지는데 전체 스캔이면 문제이고, left join 된 team 은 PK 로 찾으므로 스캔이 나오지 않는다.
+     */
+    private static List<String> scannedTables(String plan) {
+        String upper = plan.toUpperCase(Locale.ROOT);
+        List<String> tables = new ArrayList<>();
+        for (String table : List.of("MEMBER", "TEAM")) {
+            if (upper.contains("." + table + TABLE_SCAN)) {
+                tables.add(table.toLowerCase(Locale.ROOT));
+            }
+        }
+        return tables;
+    }
+
+    public record ShapePlan(MemberSearchShape shape, Query query, String sql, String plan, List<String> scannedTables) {
+        public boolean fullScan() {
+            return !scannedTables.isEmpty();
+        }
+    }
+
+    public enum Query {
+        SEARCH, COUNT, COLUMNAR
+    }
+
+    public enum Mode {
+        OFF, WARN, FAIL
+    }
+}
@@ -0,0 +1,99 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 검색 조건의 "모양" = 어떤 필드가 설정되었는지. 값은 보지 않는다.
+ * MemberSearchCondition 의 nullable 필드는 4개이므로 모양은 2^4 = 16 가지뿐이다.
+ * 같은 모양의 검색은 같은 JPQL 을 만들기 때문에 쿼리 템플릿, 메트릭 태그 등의 키로 사용한다.
+ */
+public final class MemberSearchShape {
+
+    public static final int COUNT = 16;
+
+    private static final int USERNAME = 1;
+    private static final int TEAM_NAME = 1 << 1;
+    private static final int AGE_GOE = 1 << 2;
+    private static final int AGE_LOE = 1 << 3;
+
+    private static final MemberSearchShape[] SHAPES = new MemberSearchShape[COUNT];
+
+    static {
+        for (int mask = 0; mask < COUNT; mask++) {
+            SHAPES[mask] = new MemberSearchShape(mask);
+        }
+    }
+
+    private final int mask;
+    private final String tag;
+
+    private MemberSearchShape(int mask) {
+        this.mask = mask;
+        this.tag = buildTag(mask);
+    }
+
+    /**
+     * 빈 문자열은 조건 없음으로 취급한다. (usernameEq, teamNameEq 와 같은 규칙)
+     */
+    public static MemberSearchShape of(MemberSearchCondition condition) {
+        int mask = 0;
+        if (StringUtils.hasText(condition.getUsername())) mask |= USERNAME;
+        if (StringUtils.hasText(condition.getTeamName())) mask |= TEAM_NAME;
+        if (condition.getAgeGoe() != null) mask |= AGE_GOE;
+        if (condition.getAgeLoe() != null) mask |= AGE_LOE;
+        return SHAPES[mask];
+    }
+
+    public static MemberSearchShape ofMask(int mask) {
+        return SHAPES[mask];
+    }
+
+    public static List<MemberSearchShape> all() {
+        return List.of(SHAPES);
+    }
+
+    public int mask() {
+        return mask;
+    }
+
+    public boolean hasUsername() {
+        return (mask & USERNAME) != 0;
+    }
+
+    public boolean hasTeamName() {
+        return (mask & TEAM_NAME) != 0;
+    }
+
+    public boolean hasAgeGoe() {
+        return (mask & AGE_GOE) != 0;
+    }
+
+    public boolean hasAgeLoe() {
+        return (mask & AGE_LOE) != 0;
+    }
+
+    /**
+     * 예) "username+ageGoe", 조건이 없으면 "none"
+     */
+    public String tag() {
+        return tag;
+    }
+
+    @Override
+    public String toString() {
+        return tag;
+    }
+
+    private static String buildTag(int mask) {
+        List<String> fields = new ArrayList<>();
+        if ((mask & USERNAME) != 0) fields.add("username");
+        if ((mask & TEAM_NAME) != 0) fields.add("teamName");
+        if ((mask & AGE_GOE) != 0) fields.add("ageGoe");
+        if ((mask & AGE_LOE) != 0) fields.add("ageLoe");
+        return fields.isEmpty() ? "none" : String.join("+", fields);
+    }
+}
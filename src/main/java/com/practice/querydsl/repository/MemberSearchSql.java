@@ -0,0 +1,50 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 검색 조건 모양별 JDBC 검색 SQL. MemberColumnarRepository 가 실행하고 MemberSearchIndexAdvisor 가 실행 계획을 확인한다.
+ * 조인 규칙은 MemberQueryPlanner 와 같다. (teamName 조건이 있으면 inner join, 없으면 left join)
+ * 값은 ? 로 두고 parameters 가 같은 순서로 바인딩 값을 만든다.
+ */
+final class MemberSearchSql {
+
+    private static final String[] SQL_BY_SHAPE = new String[MemberSearchShape.COUNT];
+
+    static {
+        for (MemberSearchShape shape : MemberSearchShape.all()) {
+            SQL_BY_SHAPE[shape.mask()] = build(shape);
+        }
+    }
+
+    private MemberSearchSql() {
+    }
+
+    static String of(MemberSearchShape shape) {
+        return SQL_BY_SHAPE[shape.mask()];
+    }
+
+    static Object[] parameters(MemberSearchShape shape, MemberSearchCondition condition) {
+        List<Object> parameters = new ArrayList<>(4);
+        if (shape.hasUsername()) parameters.add(condition.getUsername());
+        if (shape.hasTeamName()) parameters.add(condition.getTeamName());
+        if (shape.hasAgeGoe()) parameters.add(condition.getAgeGoe());
+        if (shape.hasAgeLoe()) parameters.add(condition.getAgeLoe());
+        return parameters.toArray();
+    }
+
+    private static String build(MemberSearchShape shape) {
+        StringBuilder sql = new StringBuilder()
+                .append("select m.member_id, m.username, m.age, t.team_id, t.name from member m ")
+                .append(shape.hasTeamName() ? "join" : "left join")
+                .append(" team t on t.team_id = m.team_id where 1 = 1");
+        if (shape.hasUsername()) sql.append(" and m.username = ?");
+        if (shape.hasTeamName()) sql.append(" and t.name = ?");
+        if (shape.hasAgeGoe()) sql.append(" and m.age >= ?");
+        if (shape.hasAgeLoe()) sql.append(" and m.age <= ?");
+        return sql.toString();
+    }
+}
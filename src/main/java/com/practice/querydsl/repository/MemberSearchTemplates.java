@@ -0,0 +1,168 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.MemberTeamDto;
+import com.practice.querydsl.dto.QMemberTeamDto;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static com.practice.querydsl.entity.QTeam.team;
+import static com.practice.querydsl.repository.MemberQueryPlanner.Projection;
+import static com.practice.querydsl.repository.MemberQueryPlanner.joins;
+
+/**
+ * 검색 조건 모양(MemberSearchShape)별로 미리 컴파일해 둔 쿼리 템플릿.
+ * 모양별로 Param 플레이스홀더를 사용한 Querydsl 쿼리를 기동할 때 한 번만 만들고 JPQL 로 직렬화해 둔다.
+ * 요청마다 QMemberTeamDto 프로젝션, BooleanExpression 트리를 만들거나 JPQL 로 다시 직렬화하지 않고,
+ * 저장해 둔 JPQL 로 JPA 쿼리를 만들어 값만 바인딩한다.
+ * 같은 모양은 항상 같은 JPQL 문자열(같은 인스턴스)이므로 Hibernate 쿼리 플랜 캐시에서 파싱/SQL 변환 결과를 그대로 찾는다.
+ * 페이징 조회의 카운트 쿼리도 모양별 템플릿(count)으로 만든다. 카운트는 member 컬럼만 쓰므로 teamName 조건이 없으면 조인하지 않는다.
+ * 메트릭: member.search.template.hits{shape} 모양별 검색 템플릿 사용 횟수
+ */
+@Component
+public class MemberSearchTemplates {
+
+    private static final Param<String> USERNAME = new Param<>(String.class, "username");
+    private static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+    private static final Param<Integer> AGE_GOE = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> AGE_LOE = new Param<>(Integer.class, "ageLoe");
+
+    private final List<Template<MemberTeamDto>> templates = new ArrayList<>(MemberSearchShape.COUNT);
+    private final List<Template<Long>> countTemplates = new ArrayList<>(MemberSearchShape.COUNT);
+    private final AtomicLongArray hits = new AtomicLongArray(MemberSearchShape.COUNT);
+
+    public MemberSearchTemplates(MeterRegistry registry) {
+        for (MemberSearchShape shape : MemberSearchShape.all()) {
+            templates.add(Template.compile(buildTemplate(shape)));
+            countTemplates.add(Template.compile(buildCountTemplate(shape)));
+            FunctionCounter.builder("member.search.template.hits", hits, counts -> counts.get(shape.mask()))
+                    .description("member search template uses by condition shape")
+                    .tag("shape", shape.tag())
+                    .register(registry);
+        }
+    }
+
+    private static JPAQuery<MemberTeamDto> buildTemplate(MemberSearchShape shape) {
+        JPAQuery<MemberTeamDto> query = new JPAQuery<Void>()
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member);
+        return joins(query, shape, Projection.MEMBER_TEAM).where(conditions(shape));
+    }
+
+    private static JPAQuery<Long> buildCountTemplate(MemberSearchShape shape) {
+        JPAQuery<Long> query = new JPAQuery<Void>()
+                .select(member.count())
+                .from(member);
+        return joins(query, shape, Projection.MEMBER).where(conditions(shape));
+    }
+
+    private static BooleanExpression[] conditions(MemberSearchShape shape) {
+        return new BooleanExpression[]{
+                shape.hasUsername() ? member.username.eq(USERNAME) : null,
+                shape.hasTeamName() ? team.name.eq(TEAM_NAME) : null,
+                shape.hasAgeGoe() ? member.age.goe(AGE_GOE) : null,
+                shape.hasAgeLoe() ? member.age.loe(AGE_LOE) : null
+        };
+    }
+
+    /**
+     * 조건 모양에 맞는 템플릿으로 조회한다. 모양별 사용 횟수를 센다.
+     */
+    public List<MemberTeamDto> search(EntityManager em, MemberSearchCondition condition) {
+        MemberSearchShape shape = MemberSearchShape.of(condition);
+        hits.incrementAndGet(shape.mask());
+        Template<MemberTeamDto> template = templates.get(shape.mask());
+        return template.results(template.bind(em, values(shape, condition)));
+    }
+
+    /**
+     * 조건에 맞는 템플릿 JPQL 로 만든 JPA 쿼리. 사용 횟수는 세지 않는다.
+     * 결과 행은 프로젝션 인자 배열(Object[])이다. (MemberSearchIndexAdvisor 가 실행 계획을 확인할 때, 벤치마크에서 사용)
+     */
+    public Query createQuery(EntityManager em, MemberSearchCondition condition) {
+        MemberSearchShape shape = MemberSearchShape.of(condition);
+        return templates.get(shape.mask()).bind(em, values(shape, condition));
+    }
+
+    /**
+     * 조건에 맞는 카운트. 사용 횟수는 검색 템플릿만 센다.
+     */
+    public long count(EntityManager em, MemberSearchCondition condition) {
+        MemberSearchShape shape = MemberSearchShape.of(condition);
+        return (Long) countTemplates.get(shape.mask()).bind(em, values(shape, condition)).getSingleResult();
+    }
+
+    private static Map<ParamExpression<?>, Object> values(MemberSearchShape shape, MemberSearchCondition condition) {
+        Map<ParamExpression<?>, Object> values = new HashMap<>(8);
+        if (shape.hasUsername()) values.put(USERNAME, condition.getUsername());
+        if (shape.hasTeamName()) values.put(TEAM_NAME, condition.getTeamName());
+        if (shape.hasAgeGoe()) values.put(AGE_GOE, condition.getAgeGoe());
+        if (shape.hasAgeLoe()) values.put(AGE_LOE, condition.getAgeLoe());
+        return values;
+    }
+
+    public long hitCount(MemberSearchShape shape) {
+        return hits.get(shape.mask());
+    }
+
+    /**
+     * 직렬화한 JPQL 과 바인딩 순서. constants 에는 Param 이 JPQL 의 ?1, ?2 ... 순서대로 들어 있다.
+     */
+    private record Template<T>(String jpql, List<Object> constants, Expression<T> projection) {
+
+        static <T> Template<T> compile(JPAQuery<T> query) {
+            JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT);
+            serializer.serialize(query.getMetadata(), false, null);
+            @SuppressWarnings("unchecked")
+            Expression<T> projection = (Expression<T>) query.getMetadata().getProjection();
+            return new Template<>(serializer.toString(), List.copyOf(serializer.getConstants()), projection);
+        }
+
+        Query bind(EntityManager em, Map<ParamExpression<?>, Object> values) {
+            Query query = em.createQuery(jpql);
+            JPAUtil.setConstants(query, constants, values);
+            return query;
+        }
+
+        /**
+         * Querydsl 이 fetch 할 때와 같이 프로젝션 인자 배열을 DTO 로 만든다.
+         */
+        @SuppressWarnings("unchecked")
+        List<T> results(Query query) {
+            List<?> rows = query.getResultList();
+            if (!(projection instanceof FactoryExpression<T> factory)) {
+                return (List<T>) rows;
+            }
+            List<T> results = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                results.add(factory.newInstance((Object[]) row));
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.entity.Team;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
+
+    /**
+     * 팀 이름 조회는 쿼리 캐시를 사용한다. 결과(팀 id 목록)는 쿼리 캐시에, 팀 엔티티는 Team 리전에 저장된다.
+     * team 테이블이 변경되면 Hibernate 가 update timestamps 리전을 보고 캐시된 결과를 무효 처리한다.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Team> findByName(String name);
+}
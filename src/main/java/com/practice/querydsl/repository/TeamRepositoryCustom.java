@@ -0,0 +1,12 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.TeamMembersDto;
+import com.practice.querydsl.entity.Team;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface TeamRepositoryCustom {
+    Page<TeamMembersDto> findTeamsWithMembers(Pageable pageable);
+    Page<Team> searchTeamsWithMembers(MemberSearchCondition condition, Pageable pageable);
+}
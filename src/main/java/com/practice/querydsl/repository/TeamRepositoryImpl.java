@@ -0,0 +1,136 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.QTeamMemberDto;
+import com.practice.querydsl.dto.QTeamMembersDto;
+import com.practice.querydsl.dto.TeamMemberDto;
+import com.practice.querydsl.dto.TeamMembersDto;
+import com.practice.querydsl.entity.Team;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static com.practice.querydsl.entity.QTeam.team;
+
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+    private final int batchSize;
+
+    public TeamRepositoryImpl(EntityManager entityManager,
+                              @Value("${member.team-listing.batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("member.team-listing.batch-size 는 1 이상이어야 합니다: " + batchSize);
+        }
+        this.queryFactory = new JPAQueryFactory(entityManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 팀 목록 + 팀별 회원. SQL 수는 팀 수와 무관하게 1 (팀 페이지) + ceil(팀 수 / batchSize) (회원) + 0~1 (카운트) 이다.
+     * - team.getMembers() 를 팀마다 초기화하면 팀 수만큼 SQL 이 더 나간다. (N+1)
+     * - members 를 페치 조인하면 팀 행이 회원 수만큼 늘어나서 DB 에서 페이징을 할 수 없다. (메모리 페이징 + 행 폭증)
+     * 그래서 팀 한 페이지를 먼저 읽고, 그 팀들의 회원을 team_id in (...) 으로 batchSize 개씩 묶어서 읽은 뒤 메모리에서 붙인다.
+     * 엔티티 대신 DTO 로 조회하므로 영속성 컨텍스트에 쌓이는 것도 없다.
+     */
+    @Override
+    public Page<TeamMembersDto> findTeamsWithMembers(Pageable pageable) {
+        List<TeamMembersDto> teams = queryFactory
+                .select(new QTeamMembersDto(team.id, team.name))
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        Map<Long, TeamMembersDto> byId = teams.stream()
+                .collect(Collectors.toMap(TeamMembersDto::getTeamId, Function.identity(), (a, b) -> a, HashMap::new));
+        List<Long> teamIds = teams.stream().map(TeamMembersDto::getTeamId).toList();
+        for (int from = 0; from < teamIds.size(); from += batchSize) {
+            List<Long> batch = teamIds.subList(from, Math.min(from + batchSize, teamIds.size()));
+            for (TeamMemberDto row : fetchMembers(batch)) {
+                byId.get(row.getTeamId()).getMembers().add(row);
+            }
+        }
+
+        return PageableExecutionUtils.getPage(teams, pageable,
+                () -> queryFactory.select(team.count()).from(team).fetchOne());
+    }
+
+    /**
+     * 조건에 맞는 팀 한 페이지를 회원 컬렉션까지 페치 조인해서 가져온다. (IdFirstPaging)
+     * - teamName: 팀 조건
+     * - username, ageGoe, ageLoe: 그 조건에 맞는 회원이 한 명이라도 있는 팀 (exists 서브쿼리라서 팀 행이 늘어나지 않는다)
+     * 페치 조인한 members 는 조건과 관계없이 팀의 전체 회원이다. (필터링된 컬렉션을 영속성 컨텍스트에 올리지 않는다)
+     * 정렬은 팀 이름, id 순이다.
+     */
+    @Override
+    public Page<Team> searchTeamsWithMembers(MemberSearchCondition condition, Pageable pageable) {
+        Predicate[] where = {teamNameEq(condition.getTeamName()), hasMatchingMember(condition)};
+        return IdFirstPaging.fetchPage(
+                queryFactory
+                        .select(team.id)
+                        .from(team)
+                        .where(where)
+                        .orderBy(team.name.asc(), team.id.asc()),
+                queryFactory
+                        .select(team.count())
+                        .from(team)
+                        .where(where),
+                pageable,
+                ids -> queryFactory
+                        .selectFrom(team)
+                        .distinct()
+                        .leftJoin(team.members, member).fetchJoin()
+                        .where(team.id.in(ids))
+                        .fetch(),
+                Team::getId);
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return StringUtils.hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression hasMatchingMember(MemberSearchCondition condition) {
+        boolean hasUsername = StringUtils.hasText(condition.getUsername());
+        if (!hasUsername && condition.getAgeGoe() == null && condition.getAgeLoe() == null) {
+            return null;
+        }
+        return JPAExpressions
+                .selectOne()
+                .from(member)
+                .where(
+                        member.team.eq(team),
+                        hasUsername ? member.username.eq(condition.getUsername()) : null,
+                        condition.getAgeGoe() != null ? member.age.goe(condition.getAgeGoe()) : null,
+                        condition.getAgeLoe() != null ? member.age.loe(condition.getAgeLoe()) : null
+                )
+                .exists();
+    }
+
+    /**
+     * member.team.id 는 member 테이블의 team_id 컬럼이므로 team 조인 없이 idx_member_team_age 로 찾는다.
+     */
+    private List<TeamMemberDto> fetchMembers(List<Long> teamIds) {
+        return queryFactory
+                .select(new QTeamMemberDto(member.id, member.username, member.age, member.team.id))
+                .from(member)
+                .where(member.team.id.in(teamIds))
+                .orderBy(member.team.id.asc(), member.id.asc())
+                .fetch();
+    }
+}
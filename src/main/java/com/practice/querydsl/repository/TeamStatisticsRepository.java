@@ -0,0 +1,45 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.QTeamStatsDto;
+import com.practice.querydsl.dto.TeamStatsDto;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.practice.querydsl.entity.QTeam.team;
+import static com.practice.querydsl.entity.QTeamStatistics.teamStatistics;
+
+/**
+ * 팀별 통계 조회. QuerydslBasicTest.group 처럼 member 전체를 group by 하지 않고
+ * 미리 계산된 team_statistics 를 팀 수만큼만 읽는다. (TeamStatisticsMaintainer 참고)
+ */
+@Repository
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class TeamStatisticsRepository {
+
+    private final JPAQueryFactory queryFactory;
+
+    /**
+     * 회원이 있는 팀만 돌려준다. (group by 조회에서 inner join 으로 회원 없는 팀이 빠지는 것과 같다)
+     */
+    public List<TeamStatsDto> findAll() {
+        return queryFactory
+                .select(new QTeamStatsDto(
+                        team.id,
+                        team.name,
+                        teamStatistics.memberCount,
+                        teamStatistics.ageSum,
+                        teamStatistics.minAge,
+                        teamStatistics.maxAge
+                ))
+                .from(teamStatistics)
+                .join(team).on(team.id.eq(teamStatistics.teamId))
+                .where(teamStatistics.memberCount.gt(0))
+                .orderBy(team.name.asc())
+                .fetch();
+    }
+}
@@ -0,0 +1,252 @@
+package com.practice.querydsl.seed;
+
+import com.practice.querydsl.cache.MemberSearchCache;
+import com.practice.querydsl.stats.TeamStatisticsMaintainer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 대용량 합성 데이터 생성기. em.persist 로 한 건씩 저장하는 대신 JDBC 배치 insert 로 저장한다.
+ * - 영속성 컨텍스트를 거치지 않으므로 flush/clear 할 것도, 쌓이는 엔티티도 없다.
+ * - batchSize 마다 executeBatch + commit 하므로 한 트랜잭션이 너무 커지지 않는다.
+ * - 호출자 트랜잭션(예: @Transactional 테스트) 안에서 호출하면 그 커넥션에 참여하고 커밋은 호출자에게 맡긴다.
+ * - generateAsync 는 백그라운드 스레드에서 실행하고, 완료 여부는 isReady() 로 확인한다.
+ */
+@Slf4j
+@Component
+public class MemberDataGenerator {
+
+    private final DataSource dataSource;
+    private final MemberSearchCache searchCache;
+    private final TeamStatisticsMaintainer teamStatistics;
+    private volatile State state = State.NOT_STARTED;
+
+    public MemberDataGenerator(DataSource dataSource, MemberSearchCache searchCache, TeamStatisticsMaintainer teamStatistics) {
+        this.dataSource = dataSource;
+        this.searchCache = searchCache;
+        this.teamStatistics = teamStatistics;
+    }
+
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public CompletableFuture<GenerationResult> generateAsync(MemberDataSpec spec) {
+        CompletableFuture<GenerationResult> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(generate(spec));
+            } catch (RuntimeException e) {
+                log.error("member seed failed", e);
+                future.completeExceptionally(e);
+            }
+        }, "member-seed");
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    public GenerationResult generate(MemberDataSpec spec) {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        boolean transactional = DataSourceUtils.isConnectionTransactional(connection, dataSource);
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            if (!transactional) {
+                connection.setAutoCommit(false);
+            }
+            try {
+                long[] teamIds = insertTeams(connection, spec, transactional);
+                insertMembers(connection, spec, teamIds, transactional);
+                teamStatistics.recomputeAll(connection); // 엔티티 이벤트가 없으므로 팀 통계는 적재 후 한 번에 계산
+                if (!transactional) {
+                    connection.commit();
+                }
+            } finally {
+                if (!transactional) {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+        } catch (SQLException e) {
+            state = State.FAILED;
+            throw new IllegalStateException("합성 데이터 생성에 실패했습니다.", e);
+        } catch (RuntimeException e) {
+            state = State.FAILED;
+            throw e;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+            searchCache.invalidateAll(); // JDBC 로 저장하므로 엔티티 이벤트 기반 무효화가 일어나지 않는다.
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        state = State.READY;
+        log.info("member seed completed: teams={}, members={}, {}ms", spec.getTeams(), spec.getMembers(), elapsedMillis);
+        return new GenerationResult(spec.getTeams(), spec.getMembers(), elapsedMillis);
+    }
+
+    private long[] insertTeams(Connection connection, MemberDataSpec spec, boolean transactional) throws SQLException {
+        PooledSequenceIdAllocator ids = new PooledSequenceIdAllocator(connection, "team_seq");
+        long[] teamIds = new long[spec.getTeams()];
+
+        try (PreparedStatement insert = connection.prepareStatement("insert into team (team_id, name) values (?, ?)")) {
+            for (int i = 0; i < spec.getTeams(); i++) {
+                teamIds[i] = ids.nextId();
+                insert.setLong(1, teamIds[i]);
+                insert.setString(2, String.format(spec.getTeamNamePattern(), teamLabel(i)));
+                insert.addBatch();
+                if ((i + 1) % spec.getBatchSize() == 0) {
+                    flushBatch(connection, insert, transactional);
+                }
+            }
+            flushBatch(connection, insert, transactional);
+        }
+        return teamIds;
+    }
+
+    private void insertMembers(Connection connection, MemberDataSpec spec, long[] teamIds, boolean transactional) throws SQLException {
+        PooledSequenceIdAllocator ids = new PooledSequenceIdAllocator(connection, "member_seq");
+        SplittableRandom random = new SplittableRandom(spec.getRandomSeed());
+        TeamSelector teamSelector = new TeamSelector(teamIds.length, spec.getTeamSkew());
+        UsernameFormat usernames = new UsernameFormat(spec.getUsernamePattern());
+        long progressStep = Math.max(spec.getMembers() / 10, 1);
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)")) {
+            for (long i = 0; i < spec.getMembers(); i++) {
+                insert.setLong(1, ids.nextId());
+                insert.setString(2, usernames.format(i));
+                insert.setInt(3, age(spec, i, random));
+                if (teamIds.length > 0) {
+                    insert.setLong(4, teamIds[teamSelector.select(i, random)]);
+                } else {
+                    insert.setNull(4, Types.BIGINT);
+                }
+                insert.addBatch();
+
+                if ((i + 1) % spec.getBatchSize() == 0) {
+                    flushBatch(connection, insert, transactional);
+                }
+                if ((i + 1) % progressStep == 0) {
+                    log.info("member seed progress: {}/{}", i + 1, spec.getMembers());
+                }
+            }
+            flushBatch(connection, insert, transactional);
+        }
+    }
+
+    private void flushBatch(Connection connection, PreparedStatement insert, boolean transactional) throws SQLException {
+        insert.executeBatch();
+        if (!transactional) {
+            connection.commit();
+        }
+    }
+
+    private int age(MemberDataSpec spec, long sequence, SplittableRandom random) {
+        int range = spec.getAgeMax() - spec.getAgeMin() + 1;
+        return switch (spec.getAgeDistribution()) {
+            case SEQUENTIAL -> spec.getAgeMin() + (int) (sequence % range);
+            case UNIFORM -> spec.getAgeMin() + random.nextInt(range);
+            case NORMAL -> {
+                double gaussian = gaussian(random) * spec.getAgeStdDev() + spec.getAgeMean();
+                yield (int) Math.max(spec.getAgeMin(), Math.min(spec.getAgeMax(), Math.round(gaussian)));
+            }
+        };
+    }
+
+    /** Box-Muller 변환 (SplittableRandom 에는 nextGaussian 이 없다) */
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    /** 0 -> A, 25 -> Z, 26 -> AA ... */
+    static String teamLabel(int index) {
+        StringBuilder label = new StringBuilder();
+        int n = index + 1;
+        while (n > 0) {
+            n--;
+            label.insert(0, (char) ('A' + n % 26));
+            n /= 26;
+        }
+        return label.toString();
+    }
+
+    /**
+     * 팀 배정. skew 가 0 이면 순서대로 돌아가며, 0 보다 크면 Zipf 분포 누적 가중치에서 이진 탐색으로 고른다.
+     */
+    private static class TeamSelector {
+        private final int teams;
+        private final double[] cumulative;
+
+        TeamSelector(int teams, double skew) {
+            this.teams = teams;
+            if (skew <= 0 || teams == 0) {
+                this.cumulative = null;
+                return;
+            }
+            this.cumulative = new double[teams];
+            double sum = 0;
+            for (int rank = 0; rank < teams; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, skew);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < teams; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        int select(long sequence, SplittableRandom random) {
+            if (cumulative == null) {
+                return (int) (sequence % teams);
+            }
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            int selected = index >= 0 ? index : -index - 1;
+            return Math.min(selected, teams - 1);
+        }
+    }
+
+    /**
+     * String.format 은 천만 건 단위에서는 비용이 크므로 %d 앞뒤 문자열을 미리 잘라서 이어 붙인다.
+     */
+    private static class UsernameFormat {
+        private final String prefix;
+        private final String suffix;
+
+        UsernameFormat(String pattern) {
+            int index = pattern.indexOf("%d");
+            if (index < 0 || pattern.indexOf("%d", index + 2) >= 0) {
+                throw new IllegalArgumentException("usernamePattern 에는 %d 가 한 번 포함되어야 합니다: " + pattern);
+            }
+            this.prefix = pattern.substring(0, index);
+            this.suffix = pattern.substring(index + 2);
+        }
+
+        String format(long sequence) {
+            return prefix + sequence + suffix;
+        }
+    }
+
+    public enum State {
+        NOT_STARTED, RUNNING, READY, FAILED
+    }
+
+    public record GenerationResult(int teams, long members, long elapsedMillis) {
+    }
+}
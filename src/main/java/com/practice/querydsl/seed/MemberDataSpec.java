@@ -0,0 +1,50 @@
+package com.practice.querydsl.seed;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 합성 데이터 생성 설정. application.yml 의 member.seed.* 로 바인딩되며, 테스트/벤치마크에서는 직접 만들어 사용한다.
+ * 기본값은 기존 InitMember 와 같은 데이터(팀 2개, member0~99, 나이 0~99, 팀 번갈아 배정)를 만든다.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "member.seed")
+public class MemberDataSpec {
+
+    private boolean enabled = true;
+
+    private int teams = 2;
+    private long members = 100;
+
+    /** 팀 이름 패턴. %s 자리에 A, B, ..., Z, AA, AB ... 가 들어간다. */
+    private String teamNamePattern = "team%s";
+    /** 회원 이름 패턴. %d 자리에 회원 순번(0부터)이 들어간다. */
+    private String usernamePattern = "member%d";
+
+    /**
+     * 팀 배정 쏠림 정도(Zipf 지수).
+     * 0 이면 팀을 순서대로 돌아가며 균등 배정하고, 1 이상이면 앞쪽 팀에 회원이 몰린다.
+     */
+    private double teamSkew = 0;
+
+    private AgeDistribution ageDistribution = AgeDistribution.SEQUENTIAL;
+    private int ageMin = 0;
+    private int ageMax = 99;
+    private double ageMean = 35;
+    private double ageStdDev = 12;
+
+    /** JDBC 배치 크기. 배치마다 executeBatch 후 커밋한다. (호출자 트랜잭션 안이면 커밋하지 않음) */
+    private int batchSize = 1_000;
+    private long randomSeed = 42;
+
+    public enum AgeDistribution {
+        /** ageMin 부터 순번대로 증가 (ageMax 다음은 다시 ageMin) */
+        SEQUENTIAL,
+        /** ageMin ~ ageMax 균등 분포 */
+        UNIFORM,
+        /** 평균 ageMean, 표준편차 ageStdDev 의 정규분포를 ageMin ~ ageMax 로 자름 */
+        NORMAL
+    }
+}
@@ -0,0 +1,50 @@
+package com.practice.querydsl.seed;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * JDBC 로 직접 insert 할 때 Hibernate 가 사용하는 시퀀스(member_seq, team_seq)와 충돌하지 않는 id 를 발급한다.
+ *
+ * Hibernate 6 의 @GeneratedValue 기본 설정은 increment 50 의 pooled 옵티마이저다.
+ * 시퀀스 값 v 를 받으면 (v - 49) ~ v 구간을 메모리에서 나눠 쓴다. (단, 최초 값 1 을 받으면 한 번 더 호출해서 1 ~ 51 을 사용)
+ * 여기서도 같은 규칙으로 시퀀스 값 하나당 50 개의 id 를 사용하고, Hibernate 의 최초 구간과 겹칠 수 있는 1, 51 은 건너뛴다.
+ * 이렇게 하면 애플리케이션이 em.persist 로 저장하는 엔티티와 id 가 절대 겹치지 않는다.
+ */
+public class PooledSequenceIdAllocator {
+
+    public static final int HIBERNATE_INCREMENT = 50;
+
+    private final Connection connection;
+    private final String nextValueSql;
+
+    private long next = 1;
+    private long hi = 0;
+
+    public PooledSequenceIdAllocator(Connection connection, String sequenceName) {
+        this.connection = connection;
+        this.nextValueSql = "select next value for " + sequenceName;
+    }
+
+    public long nextId() throws SQLException {
+        if (next > hi) {
+            long value;
+            do {
+                value = nextSequenceValue();
+            } while (value <= HIBERNATE_INCREMENT + 1);
+            hi = value;
+            next = value - HIBERNATE_INCREMENT + 1;
+        }
+        return next++;
+    }
+
+    private long nextSequenceValue() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(nextValueSql);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
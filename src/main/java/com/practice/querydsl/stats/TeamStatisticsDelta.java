@@ -0,0 +1,92 @@
+package com.practice.querydsl.stats;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 한 트랜잭션(세션) 동안 쌓인 팀별 통계 변화량. 커밋 직전에 한 번에 반영한다.
+ * 팀 id 순(TreeMap)으로 반영해서 동시에 커밋하는 트랜잭션끼리 같은 순서로 행 잠금을 잡는다.
+ */
+class TeamStatisticsDelta {
+
+    private final Map<Long, TeamDelta> teams = new TreeMap<>();
+    private final Set<Long> createdTeams = new TreeSet<>();
+    private final Set<Long> deletedTeams = new HashSet<>();
+    private boolean recomputeAll;
+
+    void add(Long teamId, int age) {
+        if (teamId != null) {
+            teams.computeIfAbsent(teamId, id -> new TeamDelta()).add(age);
+        }
+    }
+
+    void remove(Long teamId, int age) {
+        if (teamId != null) {
+            teams.computeIfAbsent(teamId, id -> new TeamDelta()).remove(age);
+        }
+    }
+
+    void teamCreated(Long teamId) {
+        createdTeams.add(teamId);
+    }
+
+    void teamDeleted(Long teamId) {
+        createdTeams.remove(teamId);
+        deletedTeams.add(teamId);
+    }
+
+    /**
+     * 변경 전 팀을 알 수 없을 때. 어느 팀에서 빠졌는지 모르므로 전체를 다시 계산한다.
+     */
+    void recomputeAll() {
+        recomputeAll = true;
+    }
+
+    boolean isRecomputeAll() {
+        return recomputeAll;
+    }
+
+    Map<Long, TeamDelta> teams() {
+        return teams;
+    }
+
+    Set<Long> createdTeams() {
+        return createdTeams;
+    }
+
+    Set<Long> deletedTeams() {
+        return deletedTeams;
+    }
+
+    boolean isEmpty() {
+        return !recomputeAll && teams.isEmpty() && createdTeams.isEmpty() && deletedTeams.isEmpty();
+    }
+
+    /**
+     * 추가만 있으면 count/sum 은 더하고 min/max 는 비교만 하면 된다.
+     * 빠진 회원이 있으면 그 나이가 min/max 였는지 알 수 없으므로 그 팀은 다시 계산한다. (removed)
+     */
+    static class TeamDelta {
+        long count;
+        long ageSum;
+        int minAdded = Integer.MAX_VALUE;
+        int maxAdded = Integer.MIN_VALUE;
+        boolean removed;
+
+        void add(int age) {
+            count++;
+            ageSum += age;
+            minAdded = Math.min(minAdded, age);
+            maxAdded = Math.max(maxAdded, age);
+        }
+
+        void remove(int age) {
+            count--;
+            ageSum -= age;
+            removed = true;
+        }
+    }
+}
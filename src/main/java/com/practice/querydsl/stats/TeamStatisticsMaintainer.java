@@ -0,0 +1,327 @@
+package com.practice.querydsl.stats;
+
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * team_statistics(TeamStatistics) 를 회원 변경에 맞춰 갱신한다.
+ * - 엔티티 변경: Hibernate POST_INSERT/UPDATE/DELETE 이벤트에서 팀별 변화량만 모아 두고 (TeamStatisticsDelta)
+ *   커밋 직전(BeforeTransactionCompletionProcess, flush 이후)에 팀마다 update 한 번으로 반영한다.
+ *   같은 트랜잭션에서 회원 1000 명을 넣어도 팀 수만큼만 update 한다. 롤백되면 모은 변화량은 버린다.
+ * - 벌크 update/delete, JDBC 로 넣은 데이터: 이벤트가 없으므로 호출자가 recompute/recomputeAll 을 직접 호출한다.
+ * 회원이 팀에서 빠지면(삭제, 팀 변경, 나이 변경) min/max 를 증분으로 알 수 없으므로 그 팀만 member 테이블에서 다시 계산한다.
+ * (idx_member_team_age 인덱스 범위만 읽는다.) 반영은 커밋 직전이므로 같은 트랜잭션 안에서는 변경 전 통계가 보인다.
+ * 통계 행은 팀을 저장하는 트랜잭션에서 만든다. (JDBC 로 팀을 넣으면 호출자가 created 를 호출)
+ * 그래서 첫 회원을 동시에 넣는 트랜잭션끼리 같은 행을 insert 하다 충돌하지 않는다.
+ * 통계 반영이 실패해도 호출자의 트랜잭션은 커밋된다. (savepoint 까지 되돌리고 경고만 남긴다. 차이는 TeamStatisticsReconciler 가 맞춘다)
+ * member.team-stats.enabled=false 면 이벤트를 등록하지 않고 recompute 도 하지 않는다.
+ */
+@Slf4j
+@Component
+public class TeamStatisticsMaintainer implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String INCREMENT_SQL = """
+            update team_statistics
+               set member_count = member_count + ?,
+                   age_sum = age_sum + ?,
+                   min_age = least(coalesce(min_age, ?), ?),
+                   max_age = greatest(coalesce(max_age, ?), ?)
+             where team_id = ?""";
+
+    private static final String RECOMPUTE_SQL = """
+            update team_statistics
+               set member_count = (select count(*) from member m where m.team_id = ?),
+                   age_sum = (select coalesce(sum(m.age), 0) from member m where m.team_id = ?),
+                   min_age = (select min(m.age) from member m where m.team_id = ?),
+                   max_age = (select max(m.age) from member m where m.team_id = ?)
+             where team_id = ?""";
+
+    private static final String AGGREGATE_SELECT = """
+            select t.team_id, count(m.member_id), coalesce(sum(m.age), 0), min(m.age), max(m.age)
+              from team t left join member m on m.team_id = t.team_id""";
+
+    private static final String INSERT_SQL = "insert into team_statistics (team_id, member_count, age_sum, min_age, max_age) ";
+
+    /** 통계 행이 없던 팀(기능 도입 전 팀 등)용. 다른 트랜잭션이 먼저 만들었으면 update 가 된다. */
+    private static final String MERGE_SQL = "merge into team_statistics (team_id, member_count, age_sum, min_age, max_age) key (team_id) ";
+
+    private static final String INSERT_EMPTY_SQL = INSERT_SQL + "values (?, 0, 0, null, null)";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean enabled;
+    private final Map<SessionImplementor, TeamStatisticsDelta> pending = new ConcurrentHashMap<>();
+
+    public TeamStatisticsMaintainer(EntityManagerFactory entityManagerFactory,
+                                    @Value("${member.team-stats.enabled:true}") boolean enabled) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void register() {
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            MemberState state = MemberState.of(event.getPersister(), event.getState());
+            delta(event.getSession()).add(state.teamId(), state.age());
+        } else if (event.getEntity() instanceof Team) {
+            delta(event.getSession()).teamCreated((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        MemberState after = MemberState.of(event.getPersister(), event.getState());
+        if (event.getOldState() == null) {
+            delta(event.getSession()).recomputeAll();
+            return;
+        }
+        MemberState before = MemberState.of(event.getPersister(), event.getOldState());
+        if (before.equals(after)) {
+            return; // username 만 바뀐 경우
+        }
+        TeamStatisticsDelta delta = delta(event.getSession());
+        delta.remove(before.teamId(), before.age());
+        delta.add(after.teamId(), after.age());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            MemberState state = MemberState.of(event.getPersister(), event.getDeletedState());
+            delta(event.getSession()).remove(state.teamId(), state.age());
+        } else if (event.getEntity() instanceof Team) {
+            delta(event.getSession()).teamDeleted((Long) event.getId());
+        }
+    }
+
+    /**
+     * 세션(= 트랜잭션)마다 변화량을 하나 만들고, 처음 만들 때 커밋 직전 반영/완료 후 정리 작업을 등록한다.
+     * 롤백되면 커밋 직전 작업은 실행되지 않고 완료 후 작업이 변화량을 버린다.
+     */
+    private TeamStatisticsDelta delta(EventSource session) {
+        TeamStatisticsDelta delta = pending.get(session);
+        if (delta == null) {
+            delta = new TeamStatisticsDelta();
+            pending.put(session, delta);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::beforeCompletion);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) -> pending.remove(session));
+        }
+        return delta;
+    }
+
+    private void beforeCompletion(SessionImplementor session) {
+        TeamStatisticsDelta delta = pending.remove(session);
+        if (delta == null || delta.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                apply(connection, delta);
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                log.warn("team statistics update failed, left to reconciliation: teams={}", delta.teams().keySet(), e);
+            }
+        });
+    }
+
+    void apply(Connection connection, TeamStatisticsDelta delta) throws SQLException {
+        if (delta.isRecomputeAll()) {
+            recomputeAll(connection);
+            return;
+        }
+
+        created(connection, delta.createdTeams());
+
+        List<Long> recompute = new ArrayList<>();
+        List<Long> incremented = new ArrayList<>();
+        try (PreparedStatement increment = connection.prepareStatement(INCREMENT_SQL)) {
+            for (Map.Entry<Long, TeamStatisticsDelta.TeamDelta> entry : delta.teams().entrySet()) {
+                TeamStatisticsDelta.TeamDelta team = entry.getValue();
+                if (team.removed) {
+                    recompute.add(entry.getKey());
+                    continue;
+                }
+                increment.setLong(1, team.count);
+                increment.setLong(2, team.ageSum);
+                increment.setInt(3, team.minAdded);
+                increment.setInt(4, team.minAdded);
+                increment.setInt(5, team.maxAdded);
+                increment.setInt(6, team.maxAdded);
+                increment.setLong(7, entry.getKey());
+                increment.addBatch();
+                incremented.add(entry.getKey());
+            }
+            if (!incremented.isEmpty()) {
+                int[] updated = increment.executeBatch();
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] == 0) {
+                        recompute.add(incremented.get(i)); // 통계 행이 없는 팀 (기능 도입 전에 만든 팀)
+                    }
+                }
+            }
+        }
+        recompute(connection, recompute);
+        delete(connection, delta.deletedTeams());
+    }
+
+    /**
+     * 새로 만든 팀의 빈 통계 행을 만든다. 팀을 insert 한 트랜잭션에서 호출한다.
+     */
+    public void created(Connection connection, Collection<Long> teamIds) throws SQLException {
+        if (!enabled || teamIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_EMPTY_SQL)) {
+            for (Long teamId : teamIds) {
+                insert.setLong(1, teamId);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * 주어진 팀의 통계를 member 테이블에서 다시 계산한다. 통계 행이 없으면 만들고, 없는 팀은 건너뛴다.
+     */
+    public void recompute(Connection connection, Collection<Long> teamIds) throws SQLException {
+        if (!enabled || teamIds.isEmpty()) {
+            return;
+        }
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(teamIds));
+        List<Long> missing = new ArrayList<>();
+        try (PreparedStatement update = connection.prepareStatement(RECOMPUTE_SQL)) {
+            for (Long teamId : sorted) {
+                for (int i = 1; i <= 5; i++) {
+                    update.setLong(i, teamId);
+                }
+                update.addBatch();
+            }
+            int[] updated = update.executeBatch();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    missing.add(sorted.get(i));
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                MERGE_SQL + AGGREGATE_SELECT + " where t.team_id = ? group by t.team_id")) {
+            for (Long teamId : missing) {
+                insert.setLong(1, teamId);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * 전체 팀 통계를 새로 만든다. JDBC 로 대량 적재한 뒤나 변경 전 상태를 모를 때 사용한다.
+     */
+    public void recomputeAll(Connection connection) throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("delete from team_statistics");
+            int teams = statement.executeUpdate(INSERT_SQL + AGGREGATE_SELECT + " group by t.team_id");
+            log.debug("team statistics recomputed: teams={}", teams);
+        }
+    }
+
+    void delete(Connection connection, Collection<Long> teamIds) throws SQLException {
+        if (teamIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement delete = connection.prepareStatement("delete from team_statistics where team_id = ?")) {
+            for (Long teamId : teamIds) {
+                delete.setLong(1, teamId);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+        }
+    }
+
+    /**
+     * 통계에 필요한 회원 상태(팀, 나이)만 꺼낸다. 팀이 프록시여도 초기화하지 않고 id 만 읽는다.
+     */
+    private record MemberState(Long teamId, int age) {
+
+        static MemberState of(EntityPersister persister, Object[] state) {
+            List<String> properties = Arrays.asList(persister.getPropertyNames());
+            int age = (Integer) state[properties.indexOf("age")];
+            return new MemberState(teamId(state[properties.indexOf("team")]), age);
+        }
+
+        private static Long teamId(Object team) {
+            if (team == null) {
+                return null;
+            }
+            if (team instanceof HibernateProxy proxy) {
+                return (Long) proxy.getHibernateLazyInitializer().getIdentifier();
+            }
+            return Objects.requireNonNull(((Team) team).getId(), "저장되지 않은 팀");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.practice.querydsl.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * team_statistics 를 실제 집계(member group by team)와 비교해서 어긋난 팀을 다시 계산한다.
+ * 증분 갱신을 거치지 않는 경로(JPQL 벌크 쿼리를 직접 실행, DB 를 직접 수정 등)로 생긴 차이를 잡기 위한 것이다.
+ * 실제 집계는 member 전체를 읽으므로 member.team-stats.reconcile-cron 주기로만 실행한다. (기본값 "-" = 실행 안 함)
+ */
+@Slf4j
+@Component
+public class TeamStatisticsReconciler {
+
+    private static final String LIVE_SQL = """
+            select t.team_id, count(m.member_id), coalesce(sum(m.age), 0), min(m.age), max(m.age)
+              from team t left join member m on m.team_id = t.team_id
+             group by t.team_id""";
+
+    private static final String STORED_SQL = "select team_id, member_count, age_sum, min_age, max_age from team_statistics";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TeamStatisticsMaintainer maintainer;
+    private final Counter drift;
+
+    public TeamStatisticsReconciler(JdbcTemplate jdbcTemplate, TeamStatisticsMaintainer maintainer, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maintainer = maintainer;
+        this.drift = Counter.builder("member.team-stats.drift")
+                .description("teams whose stored statistics differed from the live aggregate")
+                .register(registry);
+    }
+
+    @Scheduled(cron = "${member.team-stats.reconcile-cron:-}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    @Transactional
+    public ReconcileResult reconcile() {
+        if (!maintainer.isEnabled()) {
+            return new ReconcileResult(0, List.of(), List.of());
+        }
+        Map<Long, Stats> live = load(LIVE_SQL);
+        Map<Long, Stats> stored = load(STORED_SQL);
+
+        List<Long> drifted = new ArrayList<>();
+        for (Map.Entry<Long, Stats> entry : live.entrySet()) {
+            if (!entry.getValue().equals(stored.get(entry.getKey()))) {
+                drifted.add(entry.getKey());
+            }
+        }
+        Set<Long> orphans = new HashSet<>(stored.keySet());
+        orphans.removeAll(live.keySet()); // 삭제된 팀의 통계
+
+        if (!drifted.isEmpty() || !orphans.isEmpty()) {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                maintainer.recompute(connection, drifted);
+                maintainer.delete(connection, orphans);
+                return null;
+            });
+            drift.increment(drifted.size() + orphans.size());
+            log.warn("team statistics drift repaired: teams={}, orphans={}", drifted, orphans);
+        }
+        return new ReconcileResult(live.size(), drifted, List.copyOf(orphans));
+    }
+
+    private Map<Long, Stats> load(String sql) {
+        Map<Long, Stats> result = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            result.put(rs.getLong(1), new Stats(rs.getLong(2), rs.getLong(3),
+                    rs.getObject(4, Integer.class), rs.getObject(5, Integer.class)));
+        });
+        return result;
+    }
+
+    private record Stats(long memberCount, long ageSum, Integer minAge, Integer maxAge) {
+    }
+
+    /**
+     * @param checked 비교한 팀 수
+     * @param drifted 통계가 달라서 다시 계산한 팀
+     * @param orphans 팀이 없어져서 지운 통계
+     */
+    public record ReconcileResult(int checked, List<Long> drifted, List<Long> orphans) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.practice.querydsl;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static com.practice.querydsl.entity.QTeam.team;
+
+/**
+ * 데이터를 커밋해야 하는 테스트(별도 트랜잭션/커넥션에서 읽는 기능)가 공유 DB 를 비우는 데 사용한다.
+ * - member, team 은 JPQL 벌크 delete 로 지운다. 2차 캐시와 쿼리 캐시도 함께 무효화된다.
+ * - 벌크 delete 는 엔티티 이벤트가 없어서 team_statistics 가 남으므로 직접 지운다.
+ * 다른 테스트(@Commit 등)가 남긴 행이 있을 수 있으므로 setUp 과 tearDown 에서 모두 호출한다.
+ */
+public class CommittedTestData {
+
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final JdbcTemplate jdbcTemplate;
+
+    public CommittedTestData(EntityManager em, PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+        this.em = em;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void deleteAll() {
+        tx.executeWithoutResult(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            queryFactory.delete(member).execute();
+            queryFactory.delete(team).execute();
+        });
+        jdbcTemplate.update("delete from team_statistics");
+    }
+}
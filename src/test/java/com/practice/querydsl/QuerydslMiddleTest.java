@@ -1,8 +1,10 @@
 package com.practice.querydsl;
 
 import com.practice.querydsl.dto.MemberDto;
+import com.practice.querydsl.dto.MemberDtoMapper;
 import com.practice.querydsl.dto.QMemberDto;
 import com.practice.querydsl.dto.UserDto;
+import com.practice.querydsl.dto.UserDtoMapper;
 import com.practice.querydsl.entity.Member;
 import com.practice.querydsl.entity.QMember;
 import com.practice.querydsl.entity.Team;
@@ -248,6 +250,39 @@ public class QuerydslMiddleTest {
         }
     }
 
+    @Test
+    public void findDtoByGeneratedMapper() {
+        // @GenerateMapper 로 컴파일 시 생성된 매퍼. 리플렉션 없이 생성자를 직접 호출하고 DTO 는 Querydsl 에 의존하지 않는다.
+        List<MemberDto> result = queryFactory
+                .select(MemberDtoMapper.projection(member.username, member.age))
+                .from(member)
+                .orderBy(member.username.asc())
+                .fetch();
+
+        assertThat(result).extracting(MemberDto::toString)
+                .containsExactly(
+                        "MemberDto(username=member1, age=10)",
+                        "MemberDto(username=member2, age=20)",
+                        "MemberDto(username=member3, age=30)",
+                        "MemberDto(username=member4, age=40)");
+    }
+
+    @Test
+    public void findUserDtoByGeneratedMapper() {
+        // setter 매핑: 기본 생성자 + setName/setAge 호출. Tuple 도 그대로 변환할 수 있다.
+        List<Tuple> tuples = queryFactory
+                .select(member.username, member.age)
+                .from(member)
+                .where(member.age.goe(30))
+                .orderBy(member.age.asc())
+                .fetch();
+
+        List<UserDto> result = tuples.stream().map(UserDtoMapper::map).toList();
+
+        assertThat(result).extracting(UserDto::toString)
+                .containsExactly("UserDto(name=member3, age=30)", "UserDto(name=member4, age=40)");
+    }
+
     @Test
     public void distinct() {
         List<String> result = queryFactory
@@ -0,0 +1,121 @@
+package com.practice.querydsl.cache;
+
+import com.practice.querydsl.CommittedTestData;
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.MemberTeamDto;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import com.practice.querydsl.repository.MemberJpaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 무효화는 커밋 후 이벤트로 일어나므로, 트랜잭션을 나눠서 커밋하고 테스트 앞뒤로 비운다. (CommittedTestData)
+ */
+@SpringBootTest(properties = "member.search-cache.enabled=true")
+class MemberSearchCacheTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MemberSearchCache searchCache;
+
+    TransactionTemplate tx;
+    CommittedTestData testData;
+    Long teamAId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        testData = new CommittedTestData(em, transactionManager, jdbcTemplate);
+        testData.deleteAll();
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamB));
+            teamAId = teamA.getId();
+        });
+        searchCache.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+        searchCache.invalidateAll();
+    }
+
+    @Test
+    public void repeatedSearchIsServedFromCache() {
+        MemberSearchCondition condition = teamCondition("teamA");
+
+        List<MemberTeamDto> first = memberJpaRepository.searchByWhereParam(condition);
+        double hitRatio = searchCache.hitRatio();
+        List<MemberTeamDto> second = memberJpaRepository.searchByWhereParam(condition);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(searchCache.size()).isEqualTo(1);
+        assertThat(searchCache.hitRatio()).isGreaterThan(hitRatio);
+    }
+
+    @Test
+    public void committedInsertInvalidatesOnlyMatchingConditions() {
+        memberJpaRepository.searchByWhereParam(teamCondition("teamA"));
+        memberJpaRepository.searchByWhereParam(teamCondition("teamB"));
+        assertThat(searchCache.size()).isEqualTo(2);
+
+        tx.executeWithoutResult(status -> em.persist(new Member("member3", 30, em.find(Team.class, teamAId))));
+
+        assertThat(searchCache.size()).isEqualTo(1); // teamB 결과는 영향이 없으므로 남아 있다.
+        assertThat(memberJpaRepository.searchByWhereParam(teamCondition("teamA")))
+                .extracting(MemberTeamDto::getUsername)
+                .containsExactlyInAnyOrder("member1", "member3");
+    }
+
+    @Test
+    public void codecRoundTrip() {
+        PageRequest pageable = PageRequest.of(1, 2);
+        Page<MemberTeamDto> page = new PageImpl<>(List.of(
+                new MemberTeamDto(3L, "member3", -1, 1L, "teamA"),
+                new MemberTeamDto(4L, null, 40, null, null)), pageable, 10);
+
+        MemberSearchCodec<Page<MemberTeamDto>> codec = MemberSearchCodec.page(pageable);
+        Page<MemberTeamDto> decoded = codec.decode(codec.encode(page));
+
+        assertThat(decoded.getContent()).isEqualTo(page.getContent());
+        assertThat(decoded.getTotalElements()).isEqualTo(10);
+        assertThat(decoded.getPageable()).isEqualTo(pageable);
+    }
+
+    private MemberSearchCondition teamCondition(String teamName) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        return condition;
+    }
+}
@@ -0,0 +1,57 @@
+package com.practice.querydsl.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapBlockStoreTest {
+
+    @Test
+    public void valueSpanningBlocksRoundTrips() {
+        OffHeapBlockStore<String> store = new OffHeapBlockStore<>(1024, 64, 1024);
+        byte[] value = new byte[200]; // 블록 4개
+        Arrays.fill(value, (byte) 7);
+        value[199] = 9;
+
+        store.put("a", value);
+
+        assertThat(store.get("a")).isEqualTo(value);
+        assertThat(store.usedBytes()).isEqualTo(256);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedWhenFull() {
+        OffHeapBlockStore<String> store = new OffHeapBlockStore<>(256, 64, 256); // 블록 4개
+        store.put("a", new byte[128]);
+        store.put("b", new byte[128]);
+        store.get("a"); // b 가 가장 오래 사용되지 않은 값
+
+        store.put("c", new byte[100]);
+
+        assertThat(store.get("a")).isNotNull();
+        assertThat(store.get("b")).isNull();
+        assertThat(store.get("c")).hasSize(100);
+        assertThat(store.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void rejectOversizedValue() {
+        OffHeapBlockStore<String> store = new OffHeapBlockStore<>(1024, 64, 128);
+
+        assertThat(store.put("a", new byte[129])).isFalse();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    public void removeIfReleasesBlocks() {
+        OffHeapBlockStore<String> store = new OffHeapBlockStore<>(1024, 64, 1024);
+        store.put("keep", new byte[10]);
+        store.put("drop", new byte[100]);
+
+        assertThat(store.removeIf(key -> key.startsWith("d"))).isEqualTo(1);
+        assertThat(store.usedBytes()).isEqualTo(64);
+        assertThat(store.get("keep")).hasSize(10);
+    }
+}
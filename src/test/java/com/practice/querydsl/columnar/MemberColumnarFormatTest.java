@@ -0,0 +1,144 @@
+package com.practice.querydsl.columnar;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.MemberTeamDto;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import com.practice.querydsl.repository.MemberColumnarRepository;
+import com.practice.querydsl.repository.MemberJpaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberColumnarFormatTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberColumnarRepository memberColumnarRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @BeforeEach
+    void setUp() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("팀B");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 300; i++) { // 초기 배열 크기(256)를 넘겨서 확장 경로도 확인
+            em.persist(new Member("member" + i, i % 50, i % 2 == 0 ? teamA : teamB));
+        }
+        em.persist(new Member("회원", 77)); // 팀 없음, 멀티바이트 username
+        em.persist(new Member(null, 78));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void sameRowsAsJpaSearch() throws IOException {
+        for (MemberSearchCondition condition : conditions()) {
+            List<MemberTeamDto> expected = memberJpaRepository.searchByWhereParam(condition);
+
+            MemberColumns decoded = roundTrip(memberColumnarRepository.search(condition));
+
+            assertThat(toDtos(decoded)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void teamsAreDictionaryEncoded() throws IOException {
+        MemberColumns columns = roundTrip(memberColumnarRepository.search(new MemberSearchCondition()));
+
+        assertThat(columns.size()).isEqualTo(302);
+        assertThat(columns.teamCount()).isEqualTo(2);
+        assertThat(List.of(columns.dictionaryTeamName(0), columns.dictionaryTeamName(1)))
+                .containsExactlyInAnyOrder("teamA", "팀B");
+    }
+
+    @Test
+    public void jsonIsDefaultAndColumnarOnlyWhenAccepted() throws Exception {
+        for (String accept : List.of(MediaType.ALL_VALUE, MediaType.APPLICATION_JSON_VALUE)) {
+            mockMvc.perform(get("/v1/members").param("teamName", "teamA").header(HttpHeaders.ACCEPT, accept))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.length()").value(150));
+        }
+        mockMvc.perform(get("/v1/members").param("teamName", "teamA")) // Accept 헤더 없음
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+
+        byte[] body = mockMvc.perform(get("/v1/members").param("teamName", "teamA")
+                        .header(HttpHeaders.ACCEPT, MemberColumnarFormat.MEDIA_TYPE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MemberColumnarFormat.MEDIA_TYPE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+        MemberColumns columns = MemberColumnarFormat.read(new ByteArrayInputStream(body));
+        assertThat(columns.size()).isEqualTo(150);
+        assertThat(columns.teamCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void rejectsUnknownPayload() {
+        assertThatThrownBy(() -> MemberColumnarFormat.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6})))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static List<MemberSearchCondition> conditions() {
+        MemberSearchCondition all = new MemberSearchCondition();
+
+        MemberSearchCondition teamAndAge = new MemberSearchCondition();
+        teamAndAge.setTeamName("teamA");
+        teamAndAge.setAgeGoe(10);
+        teamAndAge.setAgeLoe(30);
+
+        MemberSearchCondition username = new MemberSearchCondition();
+        username.setUsername("회원");
+
+        MemberSearchCondition none = new MemberSearchCondition();
+        none.setTeamName("없는팀");
+
+        return List.of(all, teamAndAge, username, none);
+    }
+
+    private static MemberColumns roundTrip(MemberColumns columns) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MemberColumnarFormat.write(columns, out);
+        return MemberColumnarFormat.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static List<MemberTeamDto> toDtos(MemberColumns columns) {
+        List<MemberTeamDto> dtos = new ArrayList<>();
+        for (int row = 0; row < columns.size(); row++) {
+            dtos.add(new MemberTeamDto(columns.memberId(row), columns.username(row), columns.age(row),
+                    columns.teamId(row), columns.teamName(row)));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,58 @@
+package com.practice.querydsl.controller;
+
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 120; i++) {
+            em.persist(new Member("member" + i, i, teamA));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void malformedCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/v5/members").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v5/members").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void sizeIsValidatedAndCapped() throws Exception {
+        mockMvc.perform(get("/v5/members").param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/v5/members").param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(100))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+}
@@ -0,0 +1,58 @@
+package com.practice.querydsl.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesInterceptorTest {
+
+    ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.close();
+    }
+
+    @Test
+    public void writeCommitIsCarriedToNextRequestByCookie() {
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        interceptor.preHandle(new MockHttpServletRequest(), writeResponse, null);
+        assertThat(ReadYourWritesContext.readFromPrimary()).isFalse();
+        ReadYourWritesContext.writeCommitted(Duration.ofMinutes(1));
+        interceptor.afterCompletion(new MockHttpServletRequest(), writeResponse, null, null);
+
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesInterceptor.COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(ReadYourWritesContext.readFromPrimary()).isFalse(); // 요청이 끝나면 스레드에서 정리
+
+        MockHttpServletRequest nextRequest = new MockHttpServletRequest();
+        nextRequest.setCookies(cookie);
+        interceptor.preHandle(nextRequest, new MockHttpServletResponse(), null);
+        assertThat(ReadYourWritesContext.readFromPrimary()).isTrue();
+    }
+
+    @Test
+    public void otherClientsReadFromReplicas() {
+        interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), null);
+
+        assertThat(ReadYourWritesContext.readFromPrimary()).isFalse();
+    }
+
+    @Test
+    public void cookieCannotExtendWindowBeyondConfiguredLength() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE,
+                Long.toString(System.currentTimeMillis() + Duration.ofDays(1).toMillis())));
+        ReadYourWritesInterceptor shortWindow = new ReadYourWritesInterceptor(Duration.ZERO);
+
+        shortWindow.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertThat(ReadYourWritesContext.readFromPrimary()).isFalse();
+    }
+}
@@ -0,0 +1,143 @@
+package com.practice.querydsl.datasource;
+
+import com.practice.querydsl.repository.MemberPageExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * primary 1개 + 레플리카 2개를 각각 별도의 in-memory H2 로 띄워서 어느 DB 로 라우팅되는지 DATABASE() 로 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+        "member.datasource.routing.enabled=true",
+        "member.datasource.routing.selection=round_robin",
+        "member.datasource.routing.read-your-writes-window=1h",
+        "member.datasource.routing.replicas[0].url=jdbc:h2:mem:routing_replica0;DB_CLOSE_DELAY=-1",
+        "member.datasource.routing.replicas[0].username=sa",
+        "member.datasource.routing.replicas[1].url=jdbc:h2:mem:routing_replica1;DB_CLOSE_DELAY=-1",
+        "member.datasource.routing.replicas[1].username=sa",
+        "member.search.concurrent-count.enabled=true"
+})
+class ReplicationRoutingDataSourceTest {
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberPageExecutor pageExecutor;
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.close(); // 테스트 스레드에 남은 창 정리
+    }
+
+    @Test
+    public void readsGoToReplicasUntilWriteCommits() {
+        TransactionTemplate readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        TransactionTemplate writeTx = new TransactionTemplate(transactionManager);
+
+        List<String> reads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            reads.add(readTx.execute(status -> database()));
+        }
+        assertThat(reads).containsOnly("ROUTING_REPLICA0", "ROUTING_REPLICA1");
+        assertThat(reads.get(0)).isNotEqualTo(reads.get(1)); // round robin
+
+        String write = writeTx.execute(status -> database());
+        assertThat(write).isEqualTo("ROUTING_PRIMARY");
+        assertThat(database()).isEqualTo("ROUTING_PRIMARY"); // 트랜잭션 없음
+
+        // 쓰기 커밋 직후에는 read-your-writes 창 동안 읽기도 primary 로 간다.
+        writeTx.executeWithoutResult(status -> write());
+        String readAfterWrite = readTx.execute(status -> database());
+        assertThat(readAfterWrite).isEqualTo("ROUTING_PRIMARY");
+    }
+
+    @Test
+    public void transactionThatOnlyReadsDoesNotOpenWindow() {
+        new TransactionTemplate(transactionManager).execute(status -> database());
+
+        String read = readTx().execute(status -> database());
+        assertThat(read).startsWith("ROUTING_REPLICA");
+    }
+
+    @Test
+    public void rolledBackWriteDoesNotOpenWindow() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            write();
+            status.setRollbackOnly();
+        });
+
+        String read = readTx().execute(status -> database());
+        assertThat(read).startsWith("ROUTING_REPLICA");
+    }
+
+    @Test
+    public void windowIsNotSharedWithOtherWriters() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> write());
+
+        ExecutorService otherRequest = Executors.newSingleThreadExecutor();
+        try {
+            String otherRead = otherRequest.submit(() -> readTx().execute(status -> database())).get();
+            assertThat(otherRead).startsWith("ROUTING_REPLICA");
+        } finally {
+            otherRequest.shutdown();
+        }
+        String ownRead = readTx().execute(status -> database());
+        assertThat(ownRead).isEqualTo("ROUTING_PRIMARY");
+    }
+
+    @Test
+    public void concurrentCountFollowsRequestWindow() {
+        AtomicReference<String> countDatabase = new AtomicReference<>();
+
+        Page<String> beforeWrite = pageExecutor.getPage(() -> List.of(database()), PageRequest.of(0, 10), () -> {
+            countDatabase.set(database());
+            return 1;
+        });
+        assertThat(beforeWrite.getContent().get(0)).startsWith("ROUTING_REPLICA");
+        assertThat(countDatabase.get()).startsWith("ROUTING_REPLICA");
+
+        // 창 안에서는 카운트 스레드도 primary 에서 읽어서 컨텐츠와 total 이 어긋나지 않는다.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> write());
+        Page<String> afterWrite = pageExecutor.getPage(() -> List.of(database()), PageRequest.of(0, 10), () -> {
+            countDatabase.set(database());
+            return 1;
+        });
+        assertThat(afterWrite.getContent().get(0)).isEqualTo("ROUTING_PRIMARY");
+        assertThat(countDatabase.get()).isEqualTo("ROUTING_PRIMARY");
+    }
+
+    private TransactionTemplate readTx() {
+        TransactionTemplate readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        return readTx;
+    }
+
+    private void write() {
+        jdbcTemplate.update("update member set age = age where member_id = -1");
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("select database()", String.class).toUpperCase();
+    }
+}
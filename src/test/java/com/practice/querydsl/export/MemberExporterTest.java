@@ -0,0 +1,219 @@
+package com.practice.querydsl.export;
+
+import com.practice.querydsl.CommittedTestData;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 내보내기는 StatelessSession 으로 별도 커넥션을 사용하므로 데이터를 커밋하고 테스트 앞뒤로 비운다. (CommittedTestData)
+ */
+@SpringBootTest
+class MemberExporterTest {
+
+    private static final int MEMBERS = 1_000;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberExporter memberExporter;
+
+    @TempDir
+    Path directory;
+
+    TransactionTemplate tx;
+    CommittedTestData testData;
+    List<Long> memberIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        testData = new CommittedTestData(em, transactionManager, jdbcTemplate);
+        testData.deleteAll();
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            for (int i = 0; i < MEMBERS; i++) {
+                // CSV 이스케이프 확인용: 쉼표, 따옴표, 팀 없는 회원
+                String username = i == 0 ? "kim, \"jr\"" : "member" + i;
+                Member member = i % 10 == 0 ? new Member(username, i % 100) : new Member(username, i % 100, teamA);
+                em.persist(member);
+                memberIds.add(member.getId());
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    public void csvPartitionsContainEveryMemberOnce() throws IOException {
+        MemberExportResult result = memberExporter.export(spec(MemberExportFormat.CSV, 3));
+
+        assertThat(result.rows()).isEqualTo(MEMBERS);
+        assertThat(result.partitions()).hasSize(3);
+        assertThat(result.rowsPerSecond()).isPositive();
+
+        List<String> lines = new ArrayList<>();
+        for (int partition = 0; partition < 3; partition++) {
+            List<String> file = Files.readAllLines(directory.resolve("members-" + partition + ".csv"), StandardCharsets.UTF_8);
+            assertThat(file.get(0)).isEqualTo("member_id,username,age,team_id,team_name");
+            lines.addAll(file.subList(1, file.size()));
+        }
+        assertThat(lines).extracting(line -> Long.parseLong(line.substring(0, line.indexOf(','))))
+                .containsExactlyElementsOf(memberIds);
+        assertThat(lines.get(0)).isEqualTo(memberIds.get(0) + ",\"kim, \"\"jr\"\"\",0,,");
+        assertThat(lines.get(1)).startsWith(memberIds.get(1) + ",member1,1,").endsWith(",teamA");
+    }
+
+    @Test
+    public void binaryRoundTrip() throws IOException {
+        memberExporter.export(spec(MemberExportFormat.BINARY, 1));
+
+        List<Long> ids = readBinaryIds(directory.resolve("members-0.bin"));
+
+        assertThat(ids).containsExactlyElementsOf(memberIds);
+    }
+
+    @Test
+    public void resumeContinuesFromCheckpoint() throws IOException {
+        MemberExportSpec failing = spec(MemberExportFormat.BINARY, 2);
+        failing.setProgressListener(progress -> {
+            if (progress.partition() == 0 && progress.rows() >= 200) {
+                throw new IllegalStateException("중단");
+            }
+        });
+        assertThatThrownBy(() -> memberExporter.export(failing)).isInstanceOf(IllegalStateException.class);
+
+        MemberExportSpec resume = spec(MemberExportFormat.BINARY, 2);
+        resume.setResume(true);
+        MemberExportResult result = memberExporter.export(resume);
+
+        assertThat(result.rows()).isEqualTo(MEMBERS);
+        assertThat(result.partitions().get(0).exportedRows()).isEqualTo(result.partitions().get(0).rows() - 200); // 체크포인트 이후만 다시 쓴다.
+        assertThat(result.partitions().get(1).exportedRows()).isZero(); // 끝난 파티션은 건너뛴다.
+
+        List<Long> ids = new ArrayList<>(readBinaryIds(directory.resolve("members-0.bin")));
+        ids.addAll(readBinaryIds(directory.resolve("members-1.bin")));
+        assertThat(ids).containsExactlyElementsOf(memberIds);
+    }
+
+    @Test
+    public void resumeRejectsDifferentSettings() {
+        memberExporter.export(spec(MemberExportFormat.CSV, 2));
+
+        MemberExportSpec resume = spec(MemberExportFormat.CSV, 3);
+        resume.setResume(true);
+
+        assertThatThrownBy(() -> memberExporter.export(resume))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("resume 없이");
+    }
+
+    @Test
+    public void invalidSpecIsRejectedBeforeStarting() {
+        assertThatThrownBy(() -> memberExporter.exportAsync(spec(MemberExportFormat.CSV, 10_000)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("partitions");
+        assertThat(memberExporter.getState()).isNotEqualTo(MemberExporter.State.RUNNING);
+    }
+
+    @Test
+    public void secondExportIsRejectedWhileRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MemberExportSpec blocking = spec(MemberExportFormat.CSV, 1);
+        blocking.setProgressListener(progress -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        CompletableFuture<MemberExportResult> first = memberExporter.exportAsync(blocking);
+        try {
+            // 실행 중 표시는 exportAsync 가 돌아오기 전에 잡는다. (백그라운드 스레드가 시작됐는지와 무관)
+            assertThatThrownBy(() -> memberExporter.exportAsync(spec(MemberExportFormat.CSV, 1)))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+        }
+        assertThat(first.get(10, TimeUnit.SECONDS).rows()).isEqualTo(MEMBERS);
+    }
+
+    private MemberExportSpec spec(MemberExportFormat format, int partitions) {
+        MemberExportSpec spec = new MemberExportSpec();
+        spec.setDirectory(directory);
+        spec.setFormat(format);
+        spec.setPartitions(partitions);
+        spec.setCheckpointInterval(100);
+        spec.setFetchSize(50);
+        spec.setBufferSize(1024); // 행이 버퍼 경계에 걸치는 경우도 확인
+        return spec;
+    }
+
+    private static List<Long> readBinaryIds(Path file) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            assertThat(in.readInt()).isEqualTo(MemberExportFormat.BINARY_MAGIC);
+            assertThat(in.readShort()).isEqualTo(MemberExportFormat.BINARY_VERSION);
+            while (true) {
+                long id;
+                try {
+                    id = in.readLong();
+                } catch (EOFException e) {
+                    return ids;
+                }
+                in.readInt(); // age
+                in.readLong(); // teamId
+                skipString(in);
+                skipString(in);
+                ids.add(id);
+            }
+        }
+    }
+
+    private static void skipString(DataInputStream in) throws IOException {
+        short length = in.readShort();
+        if (length > 0) {
+            in.skipNBytes(length);
+        }
+    }
+}
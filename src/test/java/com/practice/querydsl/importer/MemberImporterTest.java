@@ -0,0 +1,199 @@
+package com.practice.querydsl.importer;
+
+import com.practice.querydsl.CommittedTestData;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import com.practice.querydsl.repository.TeamRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 가져오기는 청크마다 JDBC 로 커밋하므로 데이터를 커밋하고 테스트 앞뒤로 비운다. (CommittedTestData)
+ */
+@SpringBootTest
+class MemberImporterTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberImporter memberImporter;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    TransactionTemplate tx;
+    CommittedTestData testData;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        testData = new CommittedTestData(em, transactionManager, jdbcTemplate);
+        testData.deleteAll();
+        tx.executeWithoutResult(status -> em.persist(new Team("teamA")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    public void csvIsImportedInChunks() {
+        StringBuilder csv = new StringBuilder("username,age,team_name\n");
+        for (int i = 0; i < 1_050; i++) {
+            csv.append("member").append(i).append(',').append(i % 100).append(',').append(i % 2 == 0 ? "teamA" : "").append('\n');
+        }
+        csv.append("\"kim, \"\"jr\"\"\",20,teamA\n");
+
+        MemberImportSpec spec = spec(MemberImportFormat.CSV);
+        List<MemberImportProgress> progress = new ArrayList<>();
+        spec.setProgressListener(progress::add);
+
+        MemberImportResult result = memberImporter.importMembers(input(csv.toString()), spec);
+
+        assertThat(result.rows()).isEqualTo(1_051);
+        assertThat(result.imported()).isEqualTo(1_051);
+        assertThat(result.rejected()).isZero();
+        assertThat(result.chunks()).isEqualTo(3); // 500 + 500 + 51 (나머지 1 행은 별도 문장)
+        assertThat(progress).extracting(MemberImportProgress::imported).containsExactly(500L, 1_000L, 1_051L);
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member", Long.class)).isEqualTo(1_051);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from member m join team t on m.team_id = t.team_id where t.name = 'teamA'", Long.class))
+                .isEqualTo(526);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member where username = 'kim, \"jr\"'", Long.class))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "select s.member_count from team_statistics s join team t on s.team_id = t.team_id where t.name = 'teamA'",
+                Long.class)).isEqualTo(526);
+    }
+
+    @Test
+    public void importedMembersDoNotCollideWithPersistedMembers() {
+        memberImporter.importMembers(input("username,age\nmember1,10\nmember2,20\n"), spec(MemberImportFormat.CSV));
+
+        tx.executeWithoutResult(status -> em.persist(new Member("member3", 30)));
+
+        assertThat(jdbcTemplate.queryForObject("select count(distinct member_id) from member", Long.class)).isEqualTo(3);
+    }
+
+    @Test
+    public void invalidRowsAreRejectedWithLineNumbers() {
+        String ndjson = """
+                {"username": "member1", "age": 10, "teamName": "teamA"}
+                {"username": "member2", "age": "x"}
+
+                not json
+                {"age": 30}
+                {"username": "member5", "age": 50, "teamName": "teamZ"}
+                {"username": "member6", "age": 60}
+                """;
+
+        MemberImportResult result = memberImporter.importMembers(input(ndjson), spec(MemberImportFormat.NDJSON));
+
+        assertThat(result.rows()).isEqualTo(6);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(4);
+        assertThat(result.rejectedRows()).extracting(MemberImportResult.RejectedRow::line).containsExactly(2L, 4L, 5L, 6L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from team", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    public void missingTeamsAreCreatedOnce() {
+        MemberImportSpec spec = spec(MemberImportFormat.CSV);
+        spec.setCreateMissingTeams(true);
+
+        MemberImportResult result = memberImporter.importMembers(
+                input("team_name,username,age\nteamB,member1,10\nteamB,member2,20\nteamA,member3,30\n"), spec);
+
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.teamsCreated()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from member m join team t on m.team_id = t.team_id where t.name = 'teamB'", Long.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void createdTeamIsNotHiddenByCachedQuery() {
+        assertThat(teamRepository.findByName("teamB")).isEmpty(); // 빈 결과가 쿼리 캐시에 들어간다.
+
+        MemberImportSpec spec = spec(MemberImportFormat.CSV);
+        spec.setCreateMissingTeams(true);
+        memberImporter.importMembers(input("username,age,team_name\nmember1,10,teamB\n"), spec);
+
+        assertThat(teamRepository.findByName("teamB")).extracting(Team::getName).containsExactly("teamB");
+    }
+
+    @Test
+    public void cachesAreInvalidatedAfterCallerCommits() {
+        MemberImportSpec spec = spec(MemberImportFormat.CSV);
+        spec.setCreateMissingTeams(true);
+        assertThat(teamRepository.findByName("teamB")).isEmpty();
+
+        tx.executeWithoutResult(status -> {
+            memberImporter.importMembers(input("username,age,team_name\nmember1,10,teamB\n"), spec);
+            // 커밋 전에는 쿼리 캐시를 비우지 않는다. (다른 요청이 커밋 전 상태를 다시 캐시하지 않도록 커밋 후에 비운다)
+            assertThat(teamRepository.findByName("teamB")).isEmpty();
+        });
+
+        assertThat(teamRepository.findByName("teamB")).extracting(Team::getName).containsExactly("teamB");
+    }
+
+    @Test
+    public void stopsWhenRejectLimitIsExceeded() {
+        MemberImportSpec spec = spec(MemberImportFormat.CSV);
+        spec.setChunkSize(2);
+        spec.setRowsPerStatement(2);
+        spec.setRejectLimit(0);
+
+        assertThatThrownBy(() -> memberImporter.importMembers(
+                input("username,age\nmember1,10\nmember2,20\nmember3,30\nmember4,abc\n"), spec))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("5 번째 줄");
+
+        // 첫 청크만 커밋되고 거부 전에 읽은 member3 은 되돌린다.
+        assertThat(jdbcTemplate.queryForList("select username from member order by username", String.class))
+                .containsExactly("member1", "member2");
+    }
+
+    @Test
+    public void csvWithoutRequiredColumnsIsRejected() {
+        assertThatThrownBy(() -> memberImporter.importMembers(input("name,age\nmember1,10\n"), spec(MemberImportFormat.CSV)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private MemberImportSpec spec(MemberImportFormat format) {
+        MemberImportSpec spec = new MemberImportSpec();
+        spec.setFormat(format);
+        spec.setRowsPerStatement(50);
+        spec.setChunkSize(500);
+        return spec;
+    }
+
+    private InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package com.practice.querydsl.monitor;
+
+import com.practice.querydsl.controller.MemberController;
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberSearchMetricsTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberController memberController;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 4; i++) {
+            em.persist(new Member("member" + i, 10 + i, teamA));
+        }
+    }
+
+    @Test
+    public void latencyTaggedByEndpointAndShape() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(10);
+
+        long before = latencyCount("v1", "teamName+ageGoe");
+        memberController.searchMemberV1(condition);
+
+        assertThat(latencyCount("v1", "teamName+ageGoe")).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void countOutcomes() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        double executed = count("executed");
+        double skipped = count("skipped");
+
+        // 첫 페이지가 페이지 크기보다 작으면 카운트 쿼리를 생략한다.
+        memberController.searchMemberV4(condition, PageRequest.of(0, 10));
+        assertThat(count("skipped")).isEqualTo(skipped + 1);
+        assertThat(count("executed")).isEqualTo(executed);
+
+        memberController.searchMemberV3(condition, PageRequest.of(0, 10));
+        assertThat(count("executed")).isEqualTo(executed + 1);
+    }
+
+    @Test
+    public void scanRatioGrowsWithOffset() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        memberController.searchMemberV2(condition, PageRequest.of(1, 2)); // offset 2 + 2건 반환
+
+        assertThat(registry.get("member.search.scan.ratio").tag("endpoint", "v2").summary().max())
+                .isEqualTo(2.0);
+    }
+
+    private long latencyCount(String endpoint, String shape) {
+        Timer timer = registry.find("member.search.latency").tags("endpoint", endpoint, "shape", shape).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double count(String result) {
+        return registry.get("member.search.count").tag("result", result).counter().count();
+    }
+}
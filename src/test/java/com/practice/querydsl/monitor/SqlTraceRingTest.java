@@ -0,0 +1,56 @@
+package com.practice.querydsl.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlTraceRingTest {
+
+    @Test
+    public void drainInOrder() {
+        SqlTraceRing ring = new SqlTraceRing(8);
+        ring.offer(record("select 1"));
+        ring.offer(record("select 2"));
+
+        List<String> drained = new ArrayList<>();
+        assertThat(ring.drain(r -> drained.add(r.sql()))).isEqualTo(2);
+        assertThat(drained).containsExactly("select 1", "select 2");
+        assertThat(ring.drain(r -> drained.add(r.sql()))).isZero();
+    }
+
+    @Test
+    public void overwriteOldestWhenFull() {
+        SqlTraceRing ring = new SqlTraceRing(4);
+        for (int i = 0; i < 6; i++) {
+            ring.offer(record("select " + i));
+        }
+
+        List<String> drained = new ArrayList<>();
+        ring.drain(r -> drained.add(r.sql()));
+
+        assertThat(drained).containsExactly("select 2", "select 3", "select 4", "select 5");
+        assertThat(ring.dropped()).isEqualTo(2);
+    }
+
+    @Test
+    public void slowStatementsAlwaysRecorded() {
+        SqlTraceRing ring = new SqlTraceRing(8);
+        SqlTracer tracer = new SqlTracer(0, Duration.ofMillis(100), false, ring);
+
+        tracer.onExecuted("select fast", null, Duration.ofMillis(1).toNanos(), 0, tracer.sample());
+        tracer.onExecuted("select slow", null, Duration.ofMillis(150).toNanos(), 0, tracer.sample());
+
+        List<SqlTraceRecord> drained = new ArrayList<>();
+        ring.drain(drained::add);
+        assertThat(drained).extracting(SqlTraceRecord::sql).containsExactly("select slow");
+        assertThat(drained.get(0).slow()).isTrue();
+    }
+
+    private SqlTraceRecord record(String sql) {
+        return new SqlTraceRecord(0, sql, null, 1_000, 0, false, "main", 0);
+    }
+}
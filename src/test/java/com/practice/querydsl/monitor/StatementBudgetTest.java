@@ -0,0 +1,81 @@
+package com.practice.querydsl.monitor;
+
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static com.practice.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class StatementBudgetTest {
+
+    @Autowired
+    EntityManager em;
+
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    public void before() {
+        queryFactory = new JPAQueryFactory(em);
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void fetchJoinFitsBudget() {
+        List<Member> members = StatementBudget.expectAtMost(1, () -> {
+            List<Member> result = queryFactory
+                    .selectFrom(member)
+                    .join(member.team, team).fetchJoin()
+                    .fetch();
+            result.forEach(m -> m.getTeam().getName());
+            return result;
+        });
+
+        assertThat(members).hasSize(4);
+    }
+
+    @Test
+    public void lazyTeamLoadExceedsBudget() {
+        // 페치 조인 없이 팀에 접근하면 팀 수만큼 추가 SQL 이 나간다. (N+1)
+        assertThatThrownBy(() -> StatementBudget.runAtMost(1, () -> queryFactory
+                .selectFrom(member)
+                .fetch()
+                .forEach(m -> m.getTeam().getName())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("최대 1, 실행 3")
+                .hasMessageContaining("StatementBudgetTest");
+    }
+
+    @Test
+    public void nestedRecordingAddsToOuter() {
+        try (StatementRecorder.Recording outer = StatementRecorder.start(10)) {
+            StatementBudget.expectAtMost(1, () -> queryFactory.selectFrom(team).fetch());
+            queryFactory.selectFrom(member).fetch();
+
+            assertThat(outer.count()).isEqualTo(2);
+            assertThat(outer.exceeded()).isFalse();
+        }
+    }
+}
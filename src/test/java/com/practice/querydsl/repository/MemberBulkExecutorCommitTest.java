@@ -0,0 +1,99 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.CommittedTestData;
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 호출자 트랜잭션 없이 실행해서 청크마다 커밋되는 경로를 확인한다. 데이터를 커밋하고 테스트 앞뒤로 비운다. (CommittedTestData)
+ */
+@SpringBootTest(properties = "member.count-cache.enabled=true")
+class MemberBulkExecutorCommitTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberBulkExecutor bulkExecutor;
+
+    @Autowired
+    MemberCountCache countCache;
+
+    CommittedTestData testData;
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    @BeforeEach
+    void setUp() {
+        testData = new CommittedTestData(em, transactionManager, jdbcTemplate);
+        testData.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            for (int i = 1; i <= 4; i++) {
+                em.persist(new Member("member" + i, i * 10, teamA));
+            }
+        });
+        countCache.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+        countCache.invalidateAll();
+    }
+
+    @Test
+    public void eachCommittedChunkInvalidatesCounts() {
+        List<Long> cachedSizes = new ArrayList<>();
+
+        bulkExecutor.delete(member.age.gt(0), 1, progress -> {
+            cachedSizes.add((long) countCache.size());
+            countCache.get(condition, () -> 99L); // 다음 청크 전에 다른 요청이 카운트를 캐시
+        });
+
+        assertThat(cachedSizes).containsExactly(0L, 0L, 0L, 0L);
+        assertThat(countCache.size()).isZero();
+    }
+
+    @Test
+    public void failedChunkKeepsCommittedChunksAndInvalidatesCounts() {
+        List<Integer> chunks = new ArrayList<>();
+
+        assertThatThrownBy(() -> bulkExecutor.update(member.age.lt(100), clause -> {
+            if (chunks.size() == 1) { // 두 번째 청크
+                throw new IllegalStateException("chunk failed");
+            }
+            clause.set(member.age, member.age.add(1));
+        }, 2, progress -> {
+            chunks.add(progress.chunks());
+            countCache.get(condition, () -> 99L);
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(jdbcTemplate.queryForList("select age from member order by age", Integer.class))
+                .containsExactly(11, 21, 30, 40); // 첫 청크만 커밋
+        assertThat(countCache.size()).isZero();
+    }
+}
@@ -0,0 +1,81 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberBulkExecutorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberBulkExecutor bulkExecutor;
+
+    Member member1;
+    Member member2;
+    Member member3;
+    Member member4;
+
+    @BeforeEach
+    void setUp() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        member1 = new Member("member1", 10, teamA);
+        member2 = new Member("member2", 20, teamA);
+        member3 = new Member("member3", 30, teamB);
+        member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+    }
+
+    @Test
+    public void chunkedUpdateEvictsOnlyAffectedMembers() {
+        List<MemberBulkExecutor.BulkProgress> progress = new ArrayList<>();
+
+        MemberBulkExecutor.BulkResult result = bulkExecutor.update(
+                member.age.lt(28),
+                clause -> clause.set(member.age, member.age.add(1)),
+                1,
+                progress::add);
+
+        assertThat(result.affected()).isEqualTo(2);
+        assertThat(result.chunks()).isEqualTo(2);
+        assertThat(progress).extracting("affected").containsExactly(1L, 2L);
+
+        // 수정된 회원만 영속성 컨텍스트에서 빠지고, 나머지는 그대로 관리된다. (em.clear() 불필요)
+        assertThat(em.contains(member1)).isFalse();
+        assertThat(em.contains(member2)).isFalse();
+        assertThat(em.contains(member3)).isTrue();
+        assertThat(em.find(Member.class, member1.getId()).getAge()).isEqualTo(11);
+        assertThat(em.find(Member.class, member2.getId()).getAge()).isEqualTo(21);
+    }
+
+    @Test
+    public void chunkedDelete() {
+        MemberBulkExecutor.BulkResult result = bulkExecutor.delete(member.age.gt(18), 2, progress -> {
+        });
+
+        assertThat(result.affected()).isEqualTo(3);
+        assertThat(result.chunks()).isEqualTo(2);
+        assertThat(em.find(Member.class, member2.getId())).isNull();
+        assertThat(em.contains(member1)).isTrue();
+    }
+}
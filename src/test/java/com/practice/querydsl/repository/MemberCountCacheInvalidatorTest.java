@@ -0,0 +1,105 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.CommittedTestData;
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 무효화는 커밋 후 이벤트로 일어나므로, 트랜잭션을 나눠서 커밋하고 테스트 앞뒤로 비운다. (CommittedTestData)
+ */
+@SpringBootTest(properties = "member.count-cache.enabled=true")
+class MemberCountCacheInvalidatorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberCountCache countCache;
+
+    TransactionTemplate tx;
+    CommittedTestData testData;
+    Long member1Id;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        testData = new CommittedTestData(em, transactionManager, jdbcTemplate);
+        testData.deleteAll();
+        member1Id = tx.execute(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            Member member1 = new Member("member1", 10, teamA);
+            em.persist(member1);
+            return member1.getId();
+        });
+        countCache.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+        countCache.invalidateAll();
+    }
+
+    @Test
+    public void springDataSaveInvalidatesAfterCommit() {
+        cacheCount();
+
+        tx.executeWithoutResult(status -> {
+            memberRepository.save(new Member("member2", 20));
+            assertThat(countCache.size()).isEqualTo(1); // 커밋 전에는 그대로
+        });
+
+        assertThat(countCache.size()).isZero();
+    }
+
+    @Test
+    public void dirtyCheckingAndRemoveInvalidate() {
+        cacheCount();
+        tx.executeWithoutResult(status -> em.find(Member.class, member1Id).setAge(30));
+        assertThat(countCache.size()).isZero();
+
+        cacheCount();
+        tx.executeWithoutResult(status -> em.remove(em.find(Member.class, member1Id)));
+        assertThat(countCache.size()).isZero();
+    }
+
+    @Test
+    public void rollbackKeepsCachedCounts() {
+        cacheCount();
+
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("member2", 20));
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(countCache.size()).isEqualTo(1);
+    }
+
+    private void cacheCount() {
+        countCache.get(new MemberSearchCondition(), () -> 1L);
+        assertThat(countCache.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.monitor.MemberSearchMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCountCacheTest {
+
+    private final MemberSearchMetrics metrics = new MemberSearchMetrics(new SimpleMeterRegistry());
+
+    @Test
+    public void sameConditionReusesCount() {
+        MemberCountCache cache = new MemberCountCache(true, Duration.ofMinutes(1), 10, metrics);
+        AtomicInteger queries = new AtomicInteger();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        MemberSearchCondition sameCondition = new MemberSearchCondition();
+        sameCondition.setTeamName("teamA");
+        sameCondition.setUsername(""); // 빈 문자열은 조건 없음과 같다.
+
+        assertThat(cache.get(condition, () -> { queries.incrementAndGet(); return 2L; })).isEqualTo(2L);
+        assertThat(cache.get(sameCondition, () -> { queries.incrementAndGet(); return 99L; })).isEqualTo(2L);
+        assertThat(queries.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidateAllForcesRecount() {
+        MemberCountCache cache = new MemberCountCache(true, Duration.ofMinutes(1), 10, metrics);
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        cache.get(condition, () -> 4L);
+        cache.invalidateAll();
+
+        assertThat(cache.get(condition, () -> 5L)).isEqualTo(5L);
+    }
+
+    @Test
+    public void countInvalidatedWhileRunningIsNotCached() {
+        MemberCountCache cache = new MemberCountCache(true, Duration.ofMinutes(1), 10, metrics);
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        cache.get(condition, () -> {
+            cache.invalidateAll(); // 카운트 중에 다른 트랜잭션이 커밋
+            return 4L;
+        });
+
+        assertThat(cache.get(condition, () -> 5L)).isEqualTo(5L);
+    }
+
+    @Test
+    public void expiredEntryIsReloaded() {
+        MemberCountCache cache = new MemberCountCache(true, Duration.ZERO, 10, metrics);
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        cache.get(condition, () -> 4L);
+
+        assertThat(cache.get(condition, () -> 5L)).isEqualTo(5L);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedBeyondMaxSize() {
+        MemberCountCache cache = new MemberCountCache(true, Duration.ofMinutes(1), 2, metrics);
+
+        for (int age = 0; age < 5; age++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setAgeGoe(age);
+            cache.get(condition, () -> 1L);
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+    }
+}
@@ -4,6 +4,7 @@ import com.practice.querydsl.dto.MemberSearchCondition;
 import com.practice.querydsl.dto.MemberTeamDto;
 import com.practice.querydsl.entity.Member;
 import com.practice.querydsl.entity.Team;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -27,6 +29,12 @@ class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    MemberSearchTemplates searchTemplates;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @Test
     public void basicTest() {
         Member member = new Member("member1", 10);
@@ -111,6 +119,56 @@ class MemberJpaRepositoryTest {
         assertThat(result).extracting("username").containsExactly("member4");
     }
 
+    @Test
+    public void searchByWhereParamUsesShapeTemplate() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member2");
+        condition.setAgeGoe(15);
+        MemberSearchShape shape = MemberSearchShape.of(condition);
+        long before = searchTemplates.hitCount(shape);
+
+        List<MemberTeamDto> first = memberJpaRepository.searchByWhereParam(condition);
+        condition.setUsername("member1"); // 같은 모양, 다른 값
+        condition.setAgeGoe(5);
+        List<MemberTeamDto> second = memberJpaRepository.searchByWhereParam(condition);
+
+        assertThat(first).extracting("username").containsExactly("member2");
+        assertThat(second).extracting("username").containsExactly("member1");
+        assertThat(searchTemplates.hitCount(shape)).isEqualTo(before + 2);
+        assertThat(meterRegistry.get("member.search.template.hits").tag("shape", shape.tag()).functionCounter().count())
+                .isEqualTo(before + 2);
+        assertThat(shape.tag()).isEqualTo("username+ageGoe");
+    }
+
+    @Test
+    public void streamByWhereParam() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        List<MemberTeamDto> result = new ArrayList<>();
+        memberJpaRepository.streamByWhereParam(condition, result::add);
+
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("member3", "member4");
+    }
+
 
 
 
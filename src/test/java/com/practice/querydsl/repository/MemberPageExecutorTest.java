@@ -0,0 +1,218 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.CommittedTestData;
+import com.practice.querydsl.dto.MemberTeamDto;
+import com.practice.querydsl.dto.QMemberTeamDto;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import com.practice.querydsl.monitor.MemberSearchMetrics;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static com.practice.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 동시 모드의 카운트 쿼리는 별도 트랜잭션에서 실행되므로, 테스트 데이터를 커밋하고 테스트 앞뒤로 비운다. (CommittedTestData)
+ * 지연 시간 비교는 src/jmh 의 PageExecutorBenchmark 를 참고.
+ */
+@SpringBootTest
+class MemberPageExecutorTest {
+
+    // 수십 초가 걸리는 카운트 쿼리. H2 는 행을 읽는 중에 취소 여부를 확인한다.
+    private static final String SLOW_COUNT_SQL = "select count(*) from system_range(1, 1000000000) where mod(x, 7) = 3";
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberSearchMetrics metrics;
+
+    JPAQueryFactory queryFactory;
+    CommittedTestData testData;
+    ThreadPoolTaskExecutor pool;
+
+    @BeforeEach
+    void setUp() {
+        queryFactory = new JPAQueryFactory(em);
+        testData = new CommittedTestData(em, transactionManager, jdbcTemplate);
+        testData.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < 100; i++) {
+                em.persist(new Member("member" + i, i, i % 2 == 0 ? teamA : teamB));
+            }
+        });
+        pool = MemberPageExecutor.boundedExecutor(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+        testData.deleteAll();
+    }
+
+    @Test
+    public void concurrentPageMatchesSequentialPage() {
+        MemberPageExecutor sequential = new MemberPageExecutor(em, transactionManager, metrics, null, Duration.ofSeconds(10));
+        MemberPageExecutor concurrent = new MemberPageExecutor(em, transactionManager, metrics, pool, Duration.ofSeconds(10));
+        PageRequest pageRequest = PageRequest.of(3, 20);
+
+        Page<MemberTeamDto> sequentialPage = new TransactionTemplate(transactionManager)
+                .execute(status -> page(sequential, pageRequest));
+        Page<MemberTeamDto> concurrentPage = page(concurrent, pageRequest);
+
+        assertThat(concurrentPage.getTotalElements()).isEqualTo(sequentialPage.getTotalElements()).isEqualTo(90);
+        assertThat(concurrentPage.getContent()).extracting("memberId")
+                .isEqualTo(sequentialPage.getContent().stream().map(MemberTeamDto::getMemberId).toList());
+    }
+
+    @Test
+    public void runningCountStatementIsCancelledWhenContentFails() throws InterruptedException {
+        MemberPageExecutor concurrent = new MemberPageExecutor(em, transactionManager, metrics, pool, Duration.ofSeconds(60));
+        CountDownLatch countStarted = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> concurrent.getPage(() -> {
+            await(countStarted);
+            throw new IllegalStateException("content failed");
+        }, PageRequest.of(0, 20), () -> {
+            countStarted.countDown();
+            return slowCount();
+        })).isInstanceOf(IllegalStateException.class).hasMessage("content failed");
+
+        // 스레드 인터럽트만으로는 H2 문장이 끝나지 않는다. 문장이 취소되어야 카운트 스레드와 커넥션이 풀려난다.
+        // (트랜잭션 타임아웃 60초보다 훨씬 먼저)
+        assertThat(awaitIdle(Duration.ofSeconds(10))).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void countStatementIsLimitedByTimeout() {
+        MemberPageExecutor concurrent = new MemberPageExecutor(em, transactionManager, metrics, pool, Duration.ofSeconds(1));
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> concurrent.getPage(List::of, PageRequest.of(0, 20), this::slowCount))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void discardedCountIsRecordedOnlyAsSkipped() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MemberSearchMetrics isolated = new MemberSearchMetrics(registry);
+        MemberPageExecutor concurrent = new MemberPageExecutor(em, transactionManager, isolated, pool, Duration.ofSeconds(10));
+        CountDownLatch counted = new CountDownLatch(1);
+        LongSupplier countQuery = () -> { // MemberCountCache 처럼 실행하면서 executed 를 기록
+            isolated.countExecuted();
+            counted.countDown();
+            return 100;
+        };
+
+        // 첫 페이지가 페이지 크기보다 작으면 total 은 컨텐츠 크기다. 카운트가 끝난 뒤에 컨텐츠를 돌려줘서 결과를 버리게 한다.
+        Page<Integer> firstPage = concurrent.getOptimizedPage(() -> {
+            await(counted);
+            return List.of(1, 2, 3);
+        }, PageRequest.of(0, 10), countQuery);
+        assertThat(firstPage.getTotalElements()).isEqualTo(3);
+        assertThat(registry.get("member.search.count").tag("result", "executed").counter().count()).isZero();
+        assertThat(registry.get("member.search.count").tag("result", "skipped").counter().count()).isEqualTo(1);
+
+        Page<Integer> fullPage = concurrent.getOptimizedPage(() -> List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+                PageRequest.of(0, 10), countQuery);
+        assertThat(fullPage.getTotalElements()).isEqualTo(100);
+        assertThat(registry.get("member.search.count").tag("result", "executed").counter().count()).isEqualTo(1);
+        assertThat(registry.get("member.search.count").tag("result", "skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void virtualThreadsFallBackToBoundedPoolBeforeJava21() {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+
+        AsyncTaskExecutor executor = MemberPageExecutor.countExecutor(2, environment);
+        try {
+            if (Runtime.version().feature() >= 21) {
+                assertThat(executor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+            } else {
+                assertThat(executor).isInstanceOf(ThreadPoolTaskExecutor.class); // setVirtualThreads 예외로 기동 실패하지 않는다.
+            }
+        } finally {
+            new MemberPageExecutor(em, transactionManager, metrics, executor, Duration.ofSeconds(10)).destroy();
+        }
+    }
+
+    private Page<MemberTeamDto> page(MemberPageExecutor executor, PageRequest pageRequest) {
+        return executor.getPage(
+                () -> queryFactory
+                        .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(member.age.goe(10))
+                        .orderBy(member.id.asc())
+                        .offset(pageRequest.getOffset())
+                        .limit(pageRequest.getPageSize())
+                        .fetch(),
+                pageRequest,
+                () -> queryFactory
+                        .select(member.count())
+                        .from(member)
+                        .where(member.age.goe(10))
+                        .fetchOne());
+    }
+
+    private long slowCount() {
+        return ((Number) em.createNativeQuery(SLOW_COUNT_SQL).getSingleResult()).longValue();
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+            Thread.sleep(200); // 카운트 문장이 실행되기 시작할 때까지
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (pool.getActiveCount() == 0) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.monitor.StatementRecorder;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.regex.Pattern;
+
+import static com.practice.querydsl.repository.MemberQueryPlanner.Projection;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hibernate 가 JPQL 을 SQL 로 바꾸면서 조인을 더하거나 뺄 수 있으므로, 실제로 실행된 SQL 로 조인을 확인한다. (StatementRecorder)
+ */
+@SpringBootTest
+@Transactional
+class MemberQueryPlannerTest {
+
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL); // use_sql_comments 의 JPQL 주석
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberSearchTemplates searchTemplates;
+
+    @Test
+    public void countWithoutTeamNameSkipsJoin() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member1");
+        condition.setAgeGoe(10);
+
+        String sql = executedSql(() -> searchTemplates.count(em, condition));
+
+        assertThat(sql).startsWith("select count(").contains("from member");
+        assertThat(sql).doesNotContain("join").doesNotContain("team");
+    }
+
+    @Test
+    public void countWithTeamNameInnerJoinsTeam() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        String sql = executedSql(() -> searchTemplates.count(em, condition));
+
+        assertThat(sql).contains(" join team ").doesNotContain("left join");
+    }
+
+    @Test
+    public void searchWithTeamNameInnerJoinsTeam() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(10);
+
+        String sql = executedSql(() -> searchTemplates.search(em, condition));
+
+        assertThat(sql).contains(" join team ").doesNotContain("left join");
+    }
+
+    @Test
+    public void searchWithoutTeamNameLeftJoinsTeamForProjection() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member1");
+
+        String sql = executedSql(() -> searchTemplates.search(em, condition));
+
+        assertThat(sql).contains("left join team ");
+    }
+
+    @Test
+    public void teamProjectionAlwaysJoinsTeam() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        assertThat(MemberQueryPlanner.needsTeamJoin(condition, Projection.MEMBER_TEAM)).isTrue();
+        assertThat(MemberQueryPlanner.needsTeamJoin(condition, Projection.MEMBER)).isFalse();
+    }
+
+    private static String executedSql(Runnable query) {
+        try (StatementRecorder.Recording recording = StatementRecorder.start(Integer.MAX_VALUE)) {
+            query.run();
+            assertThat(recording.statements()).hasSize(1);
+            return COMMENT.matcher(recording.statements().get(0)).replaceAll("").trim().toLowerCase();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.practice.querydsl.repository;
 
+import com.practice.querydsl.dto.MemberCursor;
+import com.practice.querydsl.dto.MemberCursorPage;
 import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.MemberSortKey;
 import com.practice.querydsl.dto.MemberTeamDto;
 import com.practice.querydsl.entity.Member;
 import com.practice.querydsl.entity.QMember;
@@ -125,6 +128,63 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void searchPageComplexCount() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition ageCondition = new MemberSearchCondition(); // team 조인 없는 카운트
+        ageCondition.setAgeGoe(20);
+        MemberSearchCondition teamCondition = new MemberSearchCondition(); // team 조인 카운트
+        teamCondition.setTeamName("teamA");
+
+        PageRequest pageRequest = PageRequest.of(0, 1);
+
+        assertThat(memberRepository.searchPageComplex(ageCondition, pageRequest).getTotalElements()).isEqualTo(3);
+        assertThat(memberRepository.searchPageComplex(teamCondition, pageRequest).getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    public void searchAfterKeyset() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member1 = new Member("member1", 40, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 20, teamB);
+        Member member4 = new Member("member4", 10, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        MemberCursorPage first = memberRepository.searchAfter(condition, MemberCursor.first(MemberSortKey.AGE), 3);
+        assertThat(first.getContent())
+                .extracting("username")
+                .containsExactly("member4", "member2", "member3");
+        assertThat(first.isHasNext()).isTrue();
+
+        MemberCursorPage second = memberRepository.searchAfter(condition, MemberCursor.decode(first.getNextCursor()), 3);
+        assertThat(second.getContent())
+                .extracting("username")
+                .containsExactly("member1");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
 
 
 
@@ -0,0 +1,47 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.seed.MemberDataGenerator;
+import com.practice.querydsl.seed.MemberDataSpec;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberSearchIndexAdvisorTest {
+
+    @Autowired
+    MemberSearchIndexAdvisor advisor;
+
+    @Autowired
+    MemberDataGenerator generator;
+
+    @Test
+    public void searchShapesUseIndexes() {
+        MemberDataSpec spec = new MemberDataSpec(); // 실행 계획이 비어있는 테이블 기준이 되지 않도록 데이터를 넣는다.
+        spec.setTeams(20);
+        spec.setMembers(2_000);
+        generator.generate(spec);
+
+        List<MemberSearchIndexAdvisor.ShapePlan> plans = advisor.advise();
+
+        assertThat(plans).hasSize((MemberSearchShape.COUNT - 1) * MemberSearchIndexAdvisor.Query.values().length);
+        for (MemberSearchIndexAdvisor.ShapePlan plan : plans) {
+            System.out.println(plan.shape() + " " + plan.query() + " => " + plan.plan());
+        }
+        // 나이 조건만 있는 모양까지 포함해서 모든 모양, 모든 쿼리(검색, 카운트, 컬럼 형식)가 인덱스를 사용해야 한다.
+        assertThat(plans).allSatisfy(plan -> assertThat(plan.fullScan())
+                .as(plan.shape() + " " + plan.query() + ": " + plan.plan()).isFalse());
+        assertThat(plans)
+                .filteredOn(plan -> plan.query() == MemberSearchIndexAdvisor.Query.COUNT)
+                .allSatisfy(plan -> assertThat(plan.sql()).startsWith("select count("));
+        assertThat(plans)
+                .filteredOn(plan -> plan.query() == MemberSearchIndexAdvisor.Query.COUNT && !plan.shape().hasTeamName())
+                .allSatisfy(plan -> assertThat(plan.sql()).doesNotContain("team")); // 조인 없이 member 만 카운트
+    }
+}
@@ -0,0 +1,77 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * READ_WRITE 캐시는 트랜잭션 시작 이후에 저장된 항목을 읽지 않으므로, 트랜잭션을 나눠서 커밋하고 끝나면 지운다.
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    Team teamA;
+    Member member1;
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.remove(em.find(Member.class, member1.getId()));
+            em.remove(em.find(Team.class, teamA.getId()));
+        });
+    }
+
+    @Test
+    public void teamAndMemberAreServedFromSecondLevelCache() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            teamA = new Team("teamA");
+            em.persist(teamA);
+            member1 = new Member("member1", 10, teamA);
+            em.persist(member1);
+        });
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        CacheRegionStatistics teamRegion = statistics.getCacheRegionStatistics(Team.CACHE_REGION);
+        CacheRegionStatistics memberRegion = statistics.getCacheRegionStatistics(Member.CACHE_REGION);
+
+        tx.executeWithoutResult(status -> { // 커밋 시 캐시에 들어갔거나, 여기서 DB 조회 후 캐시에 저장
+            em.find(Team.class, teamA.getId());
+            memberJpaRepository.findById(member1.getId());
+        });
+        long teamHits = teamRegion.getHitCount();
+        long memberHits = memberRegion.getHitCount();
+
+        tx.executeWithoutResult(status -> { // 새 영속성 컨텍스트 => 2차 캐시에서 조회
+            em.find(Team.class, teamA.getId());
+            memberJpaRepository.findById(member1.getId());
+        });
+
+        assertThat(teamRegion.getHitCount()).isEqualTo(teamHits + 1);
+        assertThat(memberRegion.getHitCount()).isEqualTo(memberHits + 1);
+    }
+}
@@ -0,0 +1,131 @@
+package com.practice.querydsl.repository;
+
+import com.practice.querydsl.dto.MemberSearchCondition;
+import com.practice.querydsl.dto.TeamMemberDto;
+import com.practice.querydsl.dto.TeamMembersDto;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import com.practice.querydsl.monitor.StatementBudget;
+import com.practice.querydsl.monitor.StatementRecorder;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "member.team-listing.batch-size=100")
+@Transactional
+class TeamRepositoryTest {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int MEMBERS_PER_TEAM = 2;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    /**
+     * 팀 페이지 1 + 회원 ceil(teams / 100) + 카운트 1 (페이지가 꽉 차서 카운트를 생략할 수 없다)
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    public void statementCountDependsOnBatchesNotTeams(int teams) {
+        persistTeams(teams);
+        int expected = 1 + (teams + BATCH_SIZE - 1) / BATCH_SIZE + 1;
+
+        Page<TeamMembersDto> page;
+        try (StatementRecorder.Recording recording = StatementRecorder.start(expected)) {
+            page = teamRepository.findTeamsWithMembers(PageRequest.of(0, teams));
+            assertThat(recording.count()).isEqualTo(expected);
+        }
+
+        assertThat(page.getTotalElements()).isEqualTo(teams);
+        assertThat(page.getContent()).hasSize(teams)
+                .allSatisfy(team -> assertThat(team.getMembers())
+                        .hasSize(MEMBERS_PER_TEAM)
+                        .extracting(TeamMemberDto::getUsername)
+                        .allMatch(username -> username.startsWith(team.getTeamName() + "-")));
+    }
+
+    @Test
+    public void lastPageSkipsCountQuery() {
+        persistTeams(10);
+
+        Page<TeamMembersDto> page = StatementBudget.expectAtMost(2,
+                () -> teamRepository.findTeamsWithMembers(PageRequest.of(1, 7)));
+
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.getTotalElements()).isEqualTo(10);
+    }
+
+    @Test
+    public void lazyMembersCollectionIsNPlusOne() {
+        persistTeams(10);
+
+        // 비교 기준: 팀 엔티티를 읽고 컬렉션을 초기화하면 팀마다 SQL 이 나간다.
+        assertThatThrownBy(() -> StatementBudget.runAtMost(3, () -> teamRepository.findAll(PageRequest.of(0, 10))
+                .forEach(team -> team.getMembers().size())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void idFirstPagingLimitsInSqlAndKeepsOrder() {
+        List<Long> teamIds = persistTeams(10);
+        for (int index : List.of(8, 3, 7, 5)) {
+            em.persist(new Member("team" + index + "-senior", 50, em.find(Team.class, teamIds.get(index))));
+        }
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(50);
+
+        Page<Team> page;
+        List<String> statements;
+        try (StatementRecorder.Recording recording = StatementRecorder.start(3)) {
+            page = teamRepository.searchTeamsWithMembers(condition, PageRequest.of(0, 3));
+            page.getContent().forEach(team -> assertThat(team.getMembers()).hasSize(MEMBERS_PER_TEAM + 1));
+            assertThat(recording.exceeded()).isFalse(); // id 페이지, 페치 조인, 카운트. 컬렉션 접근 시 추가 SQL 없음
+            statements = recording.statements();
+        }
+
+        assertThat(page.getContent()).extracting(Team::getName).containsExactly("team3", "team5", "team7");
+        assertThat(page.getTotalElements()).isEqualTo(4);
+
+        // 1. 루트 id 쿼리에만 SQL limit 이 걸리고 2. 페치 조인 쿼리는 id in (...) 으로 제한된다. (메모리 페이징 없음)
+        assertThat(statements.get(0)).containsPattern("(?i)(fetch first|limit)");
+        assertThat(statements.get(1)).containsIgnoringCase("join").doesNotContainPattern("(?i)(fetch first|limit)");
+        // 3. 카운트는 루트만 센다.
+        assertThat(statements.get(2)).containsIgnoringCase("count").doesNotContainIgnoringCase(" join ");
+
+        Page<Team> last = teamRepository.searchTeamsWithMembers(condition, PageRequest.of(1, 3));
+        assertThat(last.getContent()).extracting(Team::getName).containsExactly("team8");
+    }
+
+    private List<Long> persistTeams(int teams) {
+        List<Long> teamIds = new ArrayList<>();
+        for (int i = 0; i < teams; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            teamIds.add(team.getId());
+            for (int j = 0; j < MEMBERS_PER_TEAM; j++) {
+                em.persist(new Member(team.getName() + "-member" + j, 20 + j, team));
+            }
+        }
+        em.flush();
+        em.clear();
+        return teamIds;
+    }
+}
@@ -0,0 +1,86 @@
+package com.practice.querydsl.seed;
+
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static com.practice.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional // 생성기는 테스트 트랜잭션의 커넥션에 참여하므로 테스트가 끝나면 롤백된다.
+class MemberDataGeneratorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberDataGenerator generator;
+
+    @Test
+    public void generateSkewedDataset() {
+        MemberDataSpec spec = new MemberDataSpec();
+        spec.setTeams(5);
+        spec.setMembers(1_000);
+        spec.setTeamSkew(1.5);
+        spec.setAgeDistribution(MemberDataSpec.AgeDistribution.NORMAL);
+        spec.setBatchSize(100);
+
+        MemberDataGenerator.GenerationResult result = generator.generate(spec);
+
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        assertThat(result.members()).isEqualTo(1_000);
+        assertThat(generator.isReady()).isTrue();
+        assertThat(queryFactory.select(member.count()).from(member).fetchOne()).isEqualTo(1_000L);
+
+        List<Tuple> perTeam = queryFactory
+                .select(team.name, member.count())
+                .from(member)
+                .join(member.team, team)
+                .groupBy(team.name)
+                .orderBy(member.count().desc())
+                .fetch();
+        assertThat(perTeam).hasSize(5);
+        assertThat(perTeam.get(0).get(team.name)).isEqualTo("teamA"); // 첫 번째 팀에 가장 많이 몰린다.
+        assertThat(perTeam.get(0).get(member.count())).isGreaterThan(1_000L / 5);
+
+        Integer minAge = queryFactory.select(member.age.min()).from(member).fetchOne();
+        Integer maxAge = queryFactory.select(member.age.max()).from(member).fetchOne();
+        assertThat(minAge).isGreaterThanOrEqualTo(spec.getAgeMin());
+        assertThat(maxAge).isLessThanOrEqualTo(spec.getAgeMax());
+    }
+
+    @Test
+    public void generatedIdsDoNotCollideWithPersist() {
+        MemberDataSpec spec = new MemberDataSpec();
+        spec.setTeams(2);
+        spec.setMembers(120);
+        generator.generate(spec);
+
+        Team teamC = new Team("teamC");
+        em.persist(teamC);
+        for (int i = 0; i < 120; i++) {
+            em.persist(new Member("persisted" + i, i, teamC));
+        }
+        em.flush(); // id 가 겹치면 PK 위반으로 실패한다.
+
+        Long total = new JPAQueryFactory(em).select(member.count()).from(member).fetchOne();
+        assertThat(total).isEqualTo(240L);
+    }
+
+    @Test
+    public void teamLabel() {
+        assertThat(MemberDataGenerator.teamLabel(0)).isEqualTo("A");
+        assertThat(MemberDataGenerator.teamLabel(25)).isEqualTo("Z");
+        assertThat(MemberDataGenerator.teamLabel(26)).isEqualTo("AA");
+    }
+}
@@ -0,0 +1,220 @@
+package com.practice.querydsl.stats;
+
+import com.practice.querydsl.CommittedTestData;
+import com.practice.querydsl.dto.TeamStatsDto;
+import com.practice.querydsl.entity.Member;
+import com.practice.querydsl.entity.Team;
+import com.practice.querydsl.repository.MemberBulkExecutor;
+import com.practice.querydsl.repository.TeamStatisticsRepository;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.practice.querydsl.entity.QMember.member;
+import static com.practice.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 통계는 커밋 직전에 반영되므로 트랜잭션을 나눠서 커밋하고 테스트 앞뒤로 비운다. (CommittedTestData)
+ */
+@SpringBootTest
+class TeamStatisticsTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TeamStatisticsRepository teamStatisticsRepository;
+
+    @Autowired
+    TeamStatisticsReconciler reconciler;
+
+    @Autowired
+    MemberBulkExecutor bulkExecutor;
+
+    TransactionTemplate tx;
+    CommittedTestData testData;
+    Long teamAId;
+    Long teamBId;
+    Long member10Id;
+    Long member20Id;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        testData = new CommittedTestData(em, transactionManager, jdbcTemplate);
+        testData.deleteAll();
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            Member member10 = new Member("member1", 10, teamA);
+            Member member20 = new Member("member2", 20, teamA);
+            em.persist(member10);
+            em.persist(member20);
+            em.persist(new Member("member3", 30, teamB));
+            em.persist(new Member("member4", 40, teamB));
+            em.persist(new Member("member5", 50)); // 팀 없음
+            teamAId = teamA.getId();
+            teamBId = teamB.getId();
+            member10Id = member10.getId();
+            member20Id = member20.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    public void insertsAreAccumulatedPerTeam() {
+        Map<String, TeamStatsDto> stats = stats();
+
+        assertThat(stats).containsOnlyKeys("teamA", "teamB");
+        assertStats(stats.get("teamA"), 2, 30, 10, 20);
+        assertStats(stats.get("teamB"), 2, 70, 30, 40);
+        assertThat(stats.get("teamB").getAgeAvg()).isEqualTo(35); // QuerydslBasicTest.group 과 같은 값
+        assertMatchesLiveAggregate();
+    }
+
+    @Test
+    public void updatesAndDeletesRecomputeAffectedTeams() {
+        tx.executeWithoutResult(status -> em.find(Member.class, member10Id).setAge(60)); // min 이 빠진다
+        assertStats(stats().get("teamA"), 2, 80, 20, 60);
+
+        tx.executeWithoutResult(status -> em.find(Member.class, member20Id).changeTeam(em.find(Team.class, teamBId)));
+        assertStats(stats().get("teamA"), 1, 60, 60, 60);
+        assertStats(stats().get("teamB"), 3, 90, 20, 40);
+
+        tx.executeWithoutResult(status -> em.remove(em.find(Member.class, member10Id)));
+        assertThat(stats()).containsOnlyKeys("teamB");
+        assertMatchesLiveAggregate();
+    }
+
+    @Test
+    public void rolledBackChangesAreDiscarded() {
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("member6", 99, em.find(Team.class, teamAId)));
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        assertStats(stats().get("teamA"), 2, 30, 10, 20);
+    }
+
+    @Test
+    public void bulkUpdateRecomputesTeamsInEachChunk() {
+        bulkExecutor.update(member.age.lt(35), clause -> clause.set(member.age, member.age.add(5)), 1, progress -> {
+        });
+
+        assertStats(stats().get("teamA"), 2, 40, 15, 25);
+        assertStats(stats().get("teamB"), 2, 75, 35, 40);
+        assertMatchesLiveAggregate();
+    }
+
+    @Test
+    public void reconcileRepairsDrift() {
+        jdbcTemplate.update("update team_statistics set member_count = 99 where team_id = ?", teamAId);
+        jdbcTemplate.update("insert into team_statistics (team_id, member_count, age_sum, min_age, max_age) values (-1, 1, 1, 1, 1)");
+
+        TeamStatisticsReconciler.ReconcileResult result = reconciler.reconcile();
+
+        assertThat(result.drifted()).containsExactly(teamAId);
+        assertThat(result.orphans()).containsExactly(-1L);
+        assertStats(stats().get("teamA"), 2, 30, 10, 20);
+        assertThat(reconciler.reconcile().drifted()).isEmpty();
+    }
+
+    @Test
+    public void statisticsRowIsCreatedWithTheTeam() {
+        Long teamCId = tx.execute(status -> {
+            Team teamC = new Team("teamC");
+            em.persist(teamC);
+            return teamC.getId();
+        });
+        assertThat(jdbcTemplate.queryForObject("select member_count from team_statistics where team_id = ?", Long.class, teamCId))
+                .isZero();
+
+        tx.executeWithoutResult(status -> em.persist(new Member("member6", 60, em.find(Team.class, teamCId))));
+
+        assertStats(stats().get("teamC"), 1, 60, 60, 60);
+    }
+
+    @Test
+    public void missingStatisticsRowIsMerged() {
+        // 통계 기능을 켜기 전에 만든 팀처럼 통계 행이 없는 경우
+        jdbcTemplate.update("delete from team_statistics where team_id = ?", teamBId);
+
+        tx.executeWithoutResult(status -> em.persist(new Member("member6", 60, em.find(Team.class, teamBId))));
+
+        assertStats(stats().get("teamB"), 3, 130, 30, 60);
+    }
+
+    @Test
+    public void failedStatisticsUpdateDoesNotRollBackCaller() {
+        jdbcTemplate.execute("alter table team_statistics add constraint ck_team_statistics_test check (member_count < 3)");
+        try {
+            tx.executeWithoutResult(status -> em.persist(new Member("member6", 60, em.find(Team.class, teamAId))));
+        } finally {
+            jdbcTemplate.execute("alter table team_statistics drop constraint ck_team_statistics_test");
+        }
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member where team_id = ?", Long.class, teamAId))
+                .isEqualTo(3);
+        assertStats(stats().get("teamA"), 2, 30, 10, 20); // 반영 실패. reconcile 에서 맞춘다.
+        assertThat(reconciler.reconcile().drifted()).containsExactly(teamAId);
+        assertStats(stats().get("teamA"), 3, 90, 10, 60);
+    }
+
+    private Map<String, TeamStatsDto> stats() {
+        return teamStatisticsRepository.findAll().stream()
+                .collect(Collectors.toMap(TeamStatsDto::getTeamName, Function.identity()));
+    }
+
+    private static void assertStats(TeamStatsDto stats, long count, long sum, int min, int max) {
+        assertThat(stats.getMemberCount()).isEqualTo(count);
+        assertThat(stats.getAgeSum()).isEqualTo(sum);
+        assertThat(stats.getAgeMin()).isEqualTo(min);
+        assertThat(stats.getAgeMax()).isEqualTo(max);
+    }
+
+    /**
+     * 통계 테이블이 QuerydslBasicTest.aggregation 방식(전체 group by)의 결과와 같은지 확인
+     */
+    private void assertMatchesLiveAggregate() {
+        List<Tuple> live = tx.execute(status -> new JPAQueryFactory(em)
+                .select(team.name, member.count(), member.age.sum(), member.age.min(), member.age.max())
+                .from(member)
+                .join(member.team, team)
+                .groupBy(team.name)
+                .fetch());
+        Map<String, TeamStatsDto> stats = stats();
+
+        assertThat(stats).hasSize(live.size());
+        for (Tuple row : live) {
+            assertStats(stats.get(row.get(team.name)), row.get(member.count()), row.get(member.age.sum()),
+                    row.get(member.age.min()), row.get(member.age.max()));
+        }
+    }
+}